@@ -0,0 +1,185 @@
+/*
+   Copyright The Narayana Authors
+   SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.narayana.lra.client.internal;
+
+import org.eclipse.microprofile.lra.annotation.LRAStatus;
+
+import java.net.URI;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers the status of LRAs so that {@link NarayanaLRAClient#getStatus(URI)} does not have to ask the
+ * coordinator every time.
+ * <p>
+ * The filter checks that the LRA of every request to a MANDATORY or REQUIRED resource is still active, which
+ * costs a request to the coordinator for each call that a service makes within an LRA. If the system property
+ * {@value #TIME_TO_LIVE_PROPERTY} is a positive number of milliseconds, statuses are cached for that long.
+ * The client also learns statuses from the replies of the coordinator: starting an LRA records that it is
+ * active, and closing or cancelling it, being refused when joining it, or finding that it has gone, forgets it.
+ * When the coordinator calls a participant to end an LRA, or to report that it has ended, the filter forgets its
+ * status too. An LRA that is ended by another client may still be reported as active for up to the time to live.
+ * <p>
+ * At most {@value #SIZE_PROPERTY} statuses are kept (1000 by default). When the cache is full an arbitrary
+ * entry is evicted to make room. The properties are read whenever a status is cached or looked up.
+ */
+public final class LRAStatusCache {
+    public static final String TIME_TO_LIVE_PROPERTY = "lra.internal.client.status.cache.ttl";
+    public static final String SIZE_PROPERTY = "lra.internal.client.status.cache.size";
+
+    private static final int DEFAULT_SIZE = 1000;
+
+    private static final Map<URI, Entry> statuses = new ConcurrentHashMap<>();
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong evictions = new AtomicLong();
+
+    private LRAStatusCache() {
+    }
+
+    public static boolean isEnabled() {
+        return getTimeToLive() > 0;
+    }
+
+    /**
+     * Forget the status of an LRA because it may have changed.
+     *
+     * @param lraId the LRA
+     */
+    public static void invalidate(URI lraId) {
+        if (lraId != null) {
+            statuses.remove(lraId);
+        }
+    }
+
+    /**
+     * Forget every status.
+     */
+    public static void clear() {
+        statuses.clear();
+    }
+
+    /**
+     * @return metrics describing how well the cache is working
+     */
+    public static StatusCacheUsage getUsage() {
+        return new StatusCacheUsage(statuses.size(), hits.get(), misses.get(), evictions.get());
+    }
+
+    /**
+     * @param lraId the LRA
+     * @return the status of the LRA, or null if it is not cached or it is too old
+     */
+    static LRAStatus get(URI lraId) {
+        long timeToLive = getTimeToLive();
+
+        if (timeToLive <= 0) {
+            return null;
+        }
+
+        Entry entry = statuses.get(lraId);
+
+        if (entry != null) {
+            if (System.nanoTime() - entry.cachedAt < TimeUnit.MILLISECONDS.toNanos(timeToLive)) {
+                hits.incrementAndGet();
+
+                return entry.status;
+            }
+
+            statuses.remove(lraId, entry);
+        }
+
+        misses.incrementAndGet();
+
+        return null;
+    }
+
+    static void put(URI lraId, LRAStatus status) {
+        if (lraId == null || status == null || !isEnabled()) {
+            return;
+        }
+
+        int size = Math.max(1, Integer.getInteger(SIZE_PROPERTY, DEFAULT_SIZE));
+
+        if (!statuses.containsKey(lraId)) {
+            Iterator<URI> it = statuses.keySet().iterator();
+
+            while (statuses.size() >= size && it.hasNext()) {
+                it.next();
+                it.remove();
+                evictions.incrementAndGet();
+            }
+        }
+
+        statuses.put(lraId, new Entry(status));
+    }
+
+    private static long getTimeToLive() {
+        return Long.getLong(TIME_TO_LIVE_PROPERTY, 0L);
+    }
+
+    private static final class Entry {
+        private final LRAStatus status;
+        private final long cachedAt = System.nanoTime();
+
+        private Entry(LRAStatus status) {
+            this.status = status;
+        }
+    }
+
+    /**
+     * Counts of status cache lookups.
+     */
+    public static final class StatusCacheUsage {
+        private final int size;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+
+        private StatusCacheUsage(int size, long hits, long misses, long evictions) {
+            this.size = size;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+        }
+
+        /**
+         * @return the number of statuses that are cached
+         */
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * @return the number of lookups that were answered from the cache
+         */
+        public long getHits() {
+            return hits;
+        }
+
+        /**
+         * @return the number of lookups that had to ask the coordinator
+         */
+        public long getMisses() {
+            return misses;
+        }
+
+        /**
+         * @return the number of statuses that were evicted to make room for others
+         */
+        public long getEvictions() {
+            return evictions;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("size=%d hits=%d misses=%d evictions=%d", size, hits, misses, evictions);
+        }
+    }
+}
@@ -6,9 +6,12 @@
 package io.narayana.lra.client.internal;
 
 import io.narayana.lra.Current;
+import io.narayana.lra.LRABatchOperation;
+import io.narayana.lra.LRABatchResult;
 import io.narayana.lra.LRAConstants;
 import io.narayana.lra.LRAData;
 import io.narayana.lra.logging.LRALogger;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
@@ -19,6 +22,7 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.ClientBuilder;
+import jakarta.ws.rs.client.ClientResponseFilter;
 import jakarta.ws.rs.client.Entity;
 import jakarta.ws.rs.container.Suspended;
 import jakarta.ws.rs.core.GenericType;
@@ -37,6 +41,7 @@ import org.eclipse.microprofile.lra.annotation.LRAStatus;
 import org.eclipse.microprofile.lra.annotation.Status;
 import org.eclipse.microprofile.lra.annotation.ws.rs.Leave;
 
+import java.io.ByteArrayInputStream;
 import java.io.Closeable;
 import java.io.UnsupportedEncodingException;
 import java.lang.annotation.Annotation;
@@ -49,15 +54,19 @@ import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 import static io.narayana.lra.LRAConstants.AFTER;
+import static io.narayana.lra.LRAConstants.BATCH_PATH_NAME;
 import static io.narayana.lra.LRAConstants.CLIENT_ID_PARAM_NAME;
 import static io.narayana.lra.LRAConstants.COMPENSATE;
 import static io.narayana.lra.LRAConstants.COMPLETE;
@@ -105,6 +114,7 @@ public class NarayanaLRAClient implements Closeable {
     private static final String STATUS_PATH = "/%s/status";
     private static final String CLOSE_PATH = "/%s/close";
     private static final String CANCEL_PATH = "/%s/cancel";
+    private static final String BATCH_PATH = "/" + BATCH_PATH_NAME;
 
     private static final String LINK_TEXT = "Link";
 
@@ -120,8 +130,16 @@ public class NarayanaLRAClient implements Closeable {
     private static final long END_TIMEOUT = Long.getLong("lra.internal.client.end.timeout", CLIENT_TIMEOUT);
     private static final long LEAVE_TIMEOUT = Long.getLong("lra.internal.client.leave.timeout", CLIENT_TIMEOUT);
     private static final long QUERY_TIMEOUT = Long.getLong("lra.internal.client.query.timeout", CLIENT_TIMEOUT);
+    private static final long BATCH_TIMEOUT = Long.getLong("lra.internal.client.batch.timeout", CLIENT_TIMEOUT);
+
+    /**
+     * the maximum number of pooled connections that a client instance holds to the coordinator
+     */
+    public static final String POOL_SIZE_PROPERTY = "lra.internal.client.pool.size";
+    private static final int POOL_SIZE = Integer.getInteger(POOL_SIZE_PROPERTY, 20);
 
     private URI coordinatorUrl;
+    private volatile Client client;
 
     /**
      * Creating LRA client. The URL of the LRA coordinator will be taken
@@ -197,10 +215,8 @@ public class NarayanaLRAClient implements Closeable {
     }
 
     public List<LRAData> getAllLRAs() {
-        Client client = null;
         try {
-            client = getClient();
-            Response response = client.target(coordinatorUrl)
+            Response response = getClient().target(coordinatorUrl)
                 .request()
                 .header(NARAYANA_LRA_API_VERSION_HEADER_NAME, LRAConstants.CURRENT_API_VERSION_STRING)
                 .async()
@@ -216,10 +232,6 @@ public class NarayanaLRAClient implements Closeable {
         } catch (InterruptedException | ExecutionException | TimeoutException e) {
             throw new WebApplicationException(Response.status(SERVICE_UNAVAILABLE)
                     .entity("getAllLRAs client request timed out, try again later").build());
-        } finally {
-            if (client != null) {
-                client.close();
-            }
         }
     }
 
@@ -277,7 +289,6 @@ public class NarayanaLRAClient implements Closeable {
      * @throws WebApplicationException  thrown when start of the LRA failed
      */
     public URI startLRA(URI parentLRA, String clientID, Long timeout, ChronoUnit unit, boolean verbose) throws WebApplicationException {
-        Client client = null;
         Response response = null;
         URI lra;
 
@@ -300,9 +311,7 @@ public class NarayanaLRAClient implements Closeable {
             String encodedParentLRA = parentLRA == null ? ""
                     : URLEncoder.encode(parentLRA.toString(), StandardCharsets.UTF_8);
 
-            client = getClient();
-
-            response = client.target(coordinatorUrl)
+            response = getClient().target(coordinatorUrl)
                 .path(START_PATH)
                 .queryParam(CLIENT_ID_PARAM_NAME, clientID)
                 .queryParam(TIMELIMIT_PARAM_NAME, Duration.of(timeout, unit).toMillis())
@@ -329,16 +338,13 @@ public class NarayanaLRAClient implements Closeable {
 
             Current.push(lra);
             Current.addActiveLRACache(lra);
+            LRAStatusCache.put(lra, LRAStatus.Active);
 
             return lra;
         } catch (InterruptedException | ExecutionException | TimeoutException e) {
             String errMsg = LRALogger.i18nLogger.warn_startLRAFailed(e.getMessage());
             LRALogger.logger.warn(errMsg, e);
             throw new WebApplicationException(Response.status(SERVICE_UNAVAILABLE).entity(errMsg).build());
-        } finally {
-            if (client != null) {
-                client.close();
-            }
         }
     }
 
@@ -346,6 +352,107 @@ public class NarayanaLRAClient implements Closeable {
         endLRA(lraId, false, null, null);
     }
 
+    /**
+     * Start many LRAs in a single request to the coordinator. Unlike {@link #startLRA(String)} the new LRAs
+     * are not associated with the calling thread.
+     *
+     * @param parentLRA when the new LRAs should be nested with this LRA parent, when null they are top-level
+     * @param clientID  client id determining the LRAs
+     * @param timeout  timeout value, when timeout-ed an LRA will be compensated
+     * @param unit  timeout unit, when null seconds are used
+     * @param count  the number of LRAs to start
+     * @return  the result of starting each LRA, the id of a started LRA is in {@link LRABatchResult#getLraId()}
+     * @throws WebApplicationException  thrown when the batch request failed
+     */
+    public List<LRABatchResult> startLRAs(URI parentLRA, String clientID, Long timeout, ChronoUnit unit, int count)
+            throws WebApplicationException {
+        long timeLimit = Duration.of(timeout == null ? 0L : timeout, unit == null ? ChronoUnit.SECONDS : unit).toMillis();
+        List<LRABatchOperation> operations = new ArrayList<>(count);
+
+        if (timeLimit < 0) {
+            throwGenericLRAException(parentLRA, BAD_REQUEST.getStatusCode(),
+                    LRALogger.i18nLogger.warn_invalid_timeout(timeout), null);
+            return null;
+        }
+
+        for (int i = 0; i < count; i++) {
+            operations.add(LRABatchOperation.start(parentLRA, clientID == null ? "" : clientID, timeLimit));
+        }
+
+        return runBatch(operations);
+    }
+
+    /**
+     * Close many LRAs in a single request to the coordinator
+     *
+     * @param lraIds  the LRAs to close
+     * @return  the result of closing each LRA, in the same order
+     * @throws WebApplicationException  thrown when the batch request failed
+     */
+    public List<LRABatchResult> closeLRAs(Collection<URI> lraIds) throws WebApplicationException {
+        return runBatch(lraIds.stream().map(LRABatchOperation::close).collect(Collectors.toList()));
+    }
+
+    /**
+     * Cancel many LRAs in a single request to the coordinator
+     *
+     * @param lraIds  the LRAs to cancel
+     * @return  the result of cancelling each LRA, in the same order
+     * @throws WebApplicationException  thrown when the batch request failed
+     */
+    public List<LRABatchResult> cancelLRAs(Collection<URI> lraIds) throws WebApplicationException {
+        return runBatch(lraIds.stream().map(LRABatchOperation::cancel).collect(Collectors.toList()));
+    }
+
+    /**
+     * Send a batch of operations to the coordinator. The operations are run concurrently and each one
+     * succeeds or fails independently of the others.
+     *
+     * @param operations  the operations to run
+     * @return  the result of each operation, in the same order as the operations
+     * @throws WebApplicationException  thrown when the batch request failed
+     */
+    public List<LRABatchResult> runBatch(List<LRABatchOperation> operations) throws WebApplicationException {
+        List<LRABatchResult> results;
+
+        try (Response response = getClient().target(coordinatorUrl)
+                .path(BATCH_PATH)
+                .request(MediaType.APPLICATION_JSON)
+                .header(NARAYANA_LRA_API_VERSION_HEADER_NAME, LRAConstants.CURRENT_API_VERSION_STRING)
+                .async()
+                .post(Entity.json(operations))
+                .get(BATCH_TIMEOUT, TimeUnit.SECONDS)) {
+
+            if (response.getStatus() != OK.getStatusCode()) {
+                LRALogger.logger.debugf("Error running a batch of LRA operations, response status: %d", response.getStatus());
+                // copy the reason for the failure since the response is closed before the caller can read it
+                String reason = response.hasEntity() ? response.readEntity(String.class) : null;
+
+                throw new WebApplicationException(Response.status(response.getStatus()).entity(reason).build());
+            }
+
+            results = response.readEntity(new GenericType<List<LRABatchResult>>() {});
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            throw new WebApplicationException(Response.status(SERVICE_UNAVAILABLE)
+                    .entity("batch client request timed out, try again later").build());
+        }
+
+        for (LRABatchResult result : results) {
+            if (result.getType() == LRABatchOperation.Type.START && result.isSuccessful()) {
+                Current.addActiveLRACache(result.getLraId());
+                LRAStatusCache.put(result.getLraId(), LRAStatus.Active);
+            } else if (result.getType() == LRABatchOperation.Type.CLOSE || result.getType() == LRABatchOperation.Type.CANCEL) {
+                Current.pop(result.getLraId());
+                Current.removeActiveLRACache(result.getLraId());
+                LRAStatusCache.invalidate(result.getLraId());
+            } else if (result.getType() == LRABatchOperation.Type.STATUS && result.isSuccessful()) {
+                LRAStatusCache.put(result.getLraId(), result.getStatus());
+            }
+        }
+
+        return results;
+    }
+
     public void closeLRA(URI lraId) throws WebApplicationException {
         endLRA(lraId, true, null, null);
     }
@@ -410,13 +517,11 @@ public class NarayanaLRAClient implements Closeable {
     }
 
     public void leaveLRA(URI lraId, String body) throws WebApplicationException {
-        Client client = null;
         Response response;
 
         try {
-            client = getClient();
 
-            response = client.target(coordinatorUrl)
+            response = getClient().target(coordinatorUrl)
                 .path(String.format(LEAVE_PATH, LRAConstants.getLRAUid(lraId)))
                 .request()
                 .header(NARAYANA_LRA_API_VERSION_HEADER_NAME, LRAConstants.CURRENT_API_VERSION_STRING)
@@ -434,10 +539,6 @@ public class NarayanaLRAClient implements Closeable {
             throw new WebApplicationException(Response
                     .status(SERVICE_UNAVAILABLE)
                     .entity("leave LRA client request timed out, try again later").build());
-        } finally {
-            if (client != null) {
-                client.close();
-            }
         }
     }
 
@@ -570,10 +671,23 @@ public class NarayanaLRAClient implements Closeable {
         return 1;
     }
 
+    /**
+     * Ask the coordinator for the status of an LRA. If the {@link LRAStatusCache status cache} is enabled, a
+     * recently learnt status is returned instead.
+     *
+     * @param uri the LRA
+     * @return the status of the LRA
+     * @throws WebApplicationException thrown when the status could not be obtained, or NotFoundException if the
+     * coordinator does not know the LRA
+     */
     public LRAStatus getStatus(URI uri) throws WebApplicationException {
-        Client client = null;
         Response response;
         URL lraId;
+        LRAStatus cached = LRAStatusCache.get(uri);
+
+        if (cached != null) {
+            return cached;
+        }
 
         try {
             lraId = uri.toURL();
@@ -585,8 +699,7 @@ public class NarayanaLRAClient implements Closeable {
         }
 
         try {
-            client = getClient();
-            response = client.target(coordinatorUrl)
+            response = getClient().target(coordinatorUrl)
                 .path(String.format(STATUS_PATH, LRAConstants.getLRAUid(uri)))
                 .request()
                 .header(NARAYANA_LRA_API_VERSION_HEADER_NAME, LRAConstants.CURRENT_API_VERSION_STRING)
@@ -596,10 +709,12 @@ public class NarayanaLRAClient implements Closeable {
 
             // TODO add tests for each of these checks
             if (response.getStatus() == NOT_FOUND.getStatusCode()) {
+                LRAStatusCache.invalidate(uri);
                 throw new NotFoundException(response);
             }
 
             if (response.getStatus() == NO_CONTENT.getStatusCode()) {
+                LRAStatusCache.put(uri, LRAStatus.Active);
                 return LRAStatus.Active;
             }
 
@@ -619,7 +734,11 @@ public class NarayanaLRAClient implements Closeable {
 
             // convert the returned String into a status
             try {
-                return LRAStatus.valueOf(response.readEntity(String.class));
+                LRAStatus status = LRAStatus.valueOf(response.readEntity(String.class));
+
+                LRAStatusCache.put(uri, status);
+
+                return status;
             } catch (IllegalArgumentException e) {
                 String logMsg = LRALogger.i18nLogger.error_invalidArgumentOnStatusFromCoordinator(coordinatorUrl,
                         lraId, e);
@@ -629,10 +748,6 @@ public class NarayanaLRAClient implements Closeable {
         } catch (InterruptedException | ExecutionException | TimeoutException e) {
             throw new WebApplicationException(Response.status(SERVICE_UNAVAILABLE)
                     .entity("get LRA status client request timed out, try again later").build()); // TODO use an i18n logger
-        } finally {
-            if (client != null) {
-                client.close();
-            }
         }
     }
 
@@ -684,8 +799,7 @@ public class NarayanaLRAClient implements Closeable {
     public URI enlistCompensator(URI uri, Long timelimit, String linkHeader, StringBuilder compensatorData) {
         // register with the coordinator
         // put the lra id in an http header
-        Client client = null;
-        Response response = null;
+        Response response;
         URL lraId = null;
         String data = compensatorData == null ? null : compensatorData.toString();
 
@@ -700,84 +814,79 @@ public class NarayanaLRAClient implements Closeable {
         }
 
         try {
-            client = getClient();
-
-            try {
 
-                MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
-                headers.add(NARAYANA_LRA_API_VERSION_HEADER_NAME, LRAConstants.CURRENT_API_VERSION_STRING);
+            MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+            headers.add(NARAYANA_LRA_API_VERSION_HEADER_NAME, LRAConstants.CURRENT_API_VERSION_STRING);
 
-                if (data != null) {
-                    headers.add(NARAYANA_LRA_PARTICIPANT_DATA_HEADER_NAME, data);
-                }
+            if (data != null) {
+                headers.add(NARAYANA_LRA_PARTICIPANT_DATA_HEADER_NAME, data);
+            }
 
-                headers.add("Link", linkHeader);
-                response = client.target(coordinatorUrl)
-                    .path(LRAConstants.getLRAUid(uri))
-                    .queryParam(TIMELIMIT_PARAM_NAME, timelimit)
-                    .request()
-                    .headers(headers)
-                    .async()
-                    .put(Entity.text(compensatorData == null ? linkHeader : data))
-                    .get(JOIN_TIMEOUT, TimeUnit.SECONDS);
-
-                String responseEntity = response.hasEntity() ? response.readEntity(String.class) : "";
-                // remove it and create tests for PRECONDITION_FAILED and NOT_FOUND
-                if (response.getStatus() == Response.Status.PRECONDITION_FAILED.getStatusCode()) {
-                    String logMsg = LRALogger.i18nLogger.error_tooLateToJoin(String.valueOf(lraId), responseEntity);
-                    LRALogger.logger.error(logMsg);
-                    throw new WebApplicationException(logMsg,
-                            Response.status(PRECONDITION_FAILED).entity(logMsg).build());
-                } else if (response.getStatus() == NOT_FOUND.getStatusCode()) {
-                    String logMsg = LRALogger.i18nLogger.info_failedToEnlistingLRANotFound(
-                            lraId, coordinatorUrl, NOT_FOUND.getStatusCode(), NOT_FOUND.getReasonPhrase(),
-                            GONE.getStatusCode(), GONE.getReasonPhrase());
-                    LRALogger.logger.info(logMsg);
-                    throw new WebApplicationException(Response.status(GONE).entity(logMsg).build());
-                } else if (response.getStatus() != OK.getStatusCode()) {
-                    throw new WebApplicationException(responseEntity, response);
-                }
+            headers.add("Link", linkHeader);
+            response = getClient().target(coordinatorUrl)
+                .path(LRAConstants.getLRAUid(uri))
+                .queryParam(TIMELIMIT_PARAM_NAME, timelimit)
+                .request()
+                .headers(headers)
+                .async()
+                .put(Entity.text(compensatorData == null ? linkHeader : data))
+                .get(JOIN_TIMEOUT, TimeUnit.SECONDS);
+
+            String responseEntity = response.hasEntity() ? response.readEntity(String.class) : "";
+            // remove it and create tests for PRECONDITION_FAILED and NOT_FOUND
+            if (response.getStatus() == Response.Status.PRECONDITION_FAILED.getStatusCode()
+                    || response.getStatus() == NOT_FOUND.getStatusCode()) {
+                LRAStatusCache.invalidate(uri);
+            }
 
-                String recoveryUrl = null;
-                String prevParticipantData = response.getHeaderString(NARAYANA_LRA_PARTICIPANT_DATA_HEADER_NAME);
+            if (response.getStatus() == Response.Status.PRECONDITION_FAILED.getStatusCode()) {
+                String logMsg = LRALogger.i18nLogger.error_tooLateToJoin(String.valueOf(lraId), responseEntity);
+                LRALogger.logger.error(logMsg);
+                throw new WebApplicationException(logMsg,
+                        Response.status(PRECONDITION_FAILED).entity(logMsg).build());
+            } else if (response.getStatus() == NOT_FOUND.getStatusCode()) {
+                String logMsg = LRALogger.i18nLogger.info_failedToEnlistingLRANotFound(
+                        lraId, coordinatorUrl, NOT_FOUND.getStatusCode(), NOT_FOUND.getReasonPhrase(),
+                        GONE.getStatusCode(), GONE.getReasonPhrase());
+                LRALogger.logger.info(logMsg);
+                throw new WebApplicationException(Response.status(GONE).entity(logMsg).build());
+            } else if (response.getStatus() != OK.getStatusCode()) {
+                throw new WebApplicationException(responseEntity, response);
+            }
 
-                if (compensatorData != null && prevParticipantData != null) {
-                    compensatorData.setLength(0);
-                    compensatorData.append(prevParticipantData);
-                }
+            String recoveryUrl = null;
+            String prevParticipantData = response.getHeaderString(NARAYANA_LRA_PARTICIPANT_DATA_HEADER_NAME);
 
-                try {
-                    recoveryUrl = response.getHeaderString(LRA_HTTP_RECOVERY_HEADER);
-                    return new URI(recoveryUrl);
-                } catch (URISyntaxException e) {
-                    LRALogger.logger.infof(e,"join %s returned an invalid recovery URI '%s': %s", lraId, recoveryUrl, responseEntity);
-                    throwGenericLRAException(null, Response.Status.SERVICE_UNAVAILABLE.getStatusCode(),
-                            "join " + lraId + " returned an invalid recovery URI '" + recoveryUrl + "' : " + responseEntity, e);
-                    return null;
-                }
-            // don't catch WebApplicationException, just let it propagate
-            } catch (InterruptedException | ExecutionException | TimeoutException e) {
-                throw new WebApplicationException(Response.status(SERVICE_UNAVAILABLE)
-                        .entity("join LRA client request timed out, try again later").build());
+            if (compensatorData != null && prevParticipantData != null) {
+                compensatorData.setLength(0);
+                compensatorData.append(prevParticipantData);
             }
-        } finally {
-            if (client != null) {
-                client.close();
+
+            try {
+                recoveryUrl = response.getHeaderString(LRA_HTTP_RECOVERY_HEADER);
+                return new URI(recoveryUrl);
+            } catch (URISyntaxException e) {
+                LRALogger.logger.infof(e,"join %s returned an invalid recovery URI '%s': %s", lraId, recoveryUrl, responseEntity);
+                throwGenericLRAException(null, Response.Status.SERVICE_UNAVAILABLE.getStatusCode(),
+                        "join " + lraId + " returned an invalid recovery URI '" + recoveryUrl + "' : " + responseEntity, e);
+                return null;
             }
+        // don't catch WebApplicationException, just let it propagate
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            throw new WebApplicationException(Response.status(SERVICE_UNAVAILABLE)
+                    .entity("join LRA client request timed out, try again later").build());
         }
     }
 
     private void endLRA(URI lra, boolean confirm, String compensator, String userData) throws WebApplicationException {
-        Client client = null;
         Response response = null;
 
         lraTracef(lra, "%s LRA", confirm ? "close" : "compensate");
 
         try {
-            client = getClient();
             String lraUid = LRAConstants.getLRAUid(lra);
             try {
-                response = client.target(coordinatorUrl)
+                response = getClient().target(coordinatorUrl)
                     .path(confirm ? String.format(CLOSE_PATH, lraUid) : String.format(CANCEL_PATH, lraUid))
                     .request()
                     .header(NARAYANA_LRA_API_VERSION_HEADER_NAME, LRAConstants.CURRENT_API_VERSION_STRING)
@@ -804,10 +913,7 @@ public class NarayanaLRAClient implements Closeable {
         } finally {
             Current.pop(lra);
             Current.removeActiveLRACache(lra);
-
-            if (client != null) {
-                client.close();
-            }
+            LRAStatusCache.invalidate(lra);
         }
     }
 
@@ -875,7 +981,22 @@ public class NarayanaLRAClient implements Closeable {
         }
     }
 
+    /**
+     * Release the connections held by this client. The client remains usable, a new connection pool
+     * is created if the client is used again.
+     */
+    @PreDestroy
     public void close() {
+        Client c;
+
+        synchronized (this) {
+            c = client;
+            client = null;
+        }
+
+        if (c != null) {
+            c.close();
+        }
     }
 
     private void throwGenericLRAException(URI lraId, int statusCode, String message, Throwable cause) throws WebApplicationException {
@@ -883,7 +1004,52 @@ public class NarayanaLRAClient implements Closeable {
         throw new WebApplicationException(errorMsg, cause, Response.status(statusCode).entity(errorMsg).build());
     }
 
+    /**
+     * The client is created on first use and is then shared by every request made through this instance
+     * until it is closed. If the JAX-RS implementation supports it then the client is configured with
+     * a connection pool of {@value #POOL_SIZE_PROPERTY} connections (in practice all connections go to
+     * the same coordinator).
+     */
     private Client getClient() {
-        return ClientBuilder.newClient();
+        Client c = client;
+
+        if (c == null) {
+            synchronized (this) {
+                c = client;
+
+                if (c == null) {
+                    client = c = createClient();
+                }
+            }
+        }
+
+        return c;
+    }
+
+    private static Client createClient() {
+        ClientBuilder builder = ClientBuilder.newBuilder();
+
+        // the pool is configured reflectively since the client does not depend on a particular JAX-RS implementation
+        configurePool(builder, "connectionPoolSize", POOL_SIZE);
+        configurePool(builder, "maxPooledPerRoute", POOL_SIZE);
+
+        // coordinator responses are small so read them fully as soon as they arrive, which returns the connection
+        // to the pool straight away and means that callers never need to close a response
+        return builder.register((ClientResponseFilter) (requestContext, responseContext) -> {
+            if (responseContext.hasEntity()) {
+                responseContext.setEntityStream(new ByteArrayInputStream(responseContext.getEntityStream().readAllBytes()));
+            }
+        }).build();
+    }
+
+    private static void configurePool(ClientBuilder builder, String methodName, int size) {
+        try {
+            builder.getClass().getMethod(methodName, int.class).invoke(builder, size);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            if (LRALogger.logger.isTraceEnabled()) {
+                LRALogger.logger.tracef("JAX-RS client builder %s does not support %s: %s",
+                        builder.getClass().getName(), methodName, e.getMessage());
+            }
+        }
     }
 }
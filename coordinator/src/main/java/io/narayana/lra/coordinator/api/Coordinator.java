@@ -5,14 +5,18 @@
 
 package io.narayana.lra.coordinator.api;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.narayana.lra.Current;
+import io.narayana.lra.LRABatchOperation;
+import io.narayana.lra.LRABatchResult;
 import io.narayana.lra.LRAConstants;
 import io.narayana.lra.LRAData;
 import io.narayana.lra.coordinator.domain.model.LongRunningAction;
 import io.narayana.lra.coordinator.domain.service.LRAService;
+import io.narayana.lra.coordinator.internal.CoordinatorThreads;
 import io.narayana.lra.coordinator.internal.LRARecoveryModule;
+import io.narayana.lra.coordinator.internal.ParticipantClient;
 import io.narayana.lra.logging.LRALogger;
 
 import jakarta.enterprise.context.ApplicationScoped;
@@ -20,6 +24,7 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.json.Json;
 import jakarta.json.JsonObject;
 import jakarta.ws.rs.ApplicationPath;
+import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.HeaderParam;
@@ -32,8 +37,6 @@ import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.ServiceUnavailableException;
 import jakarta.ws.rs.WebApplicationException;
-import jakarta.ws.rs.client.Client;
-import jakarta.ws.rs.client.ClientBuilder;
 import jakarta.ws.rs.client.Entity;
 import jakarta.ws.rs.core.Application;
 import jakarta.ws.rs.core.Context;
@@ -41,16 +44,24 @@ import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Link;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import jakarta.ws.rs.core.UriInfo;
 
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.eclipse.microprofile.config.ConfigProvider;
 import org.eclipse.microprofile.faulttolerance.Bulkhead;
@@ -73,17 +84,24 @@ import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
 import static io.narayana.lra.LRAConstants.API_VERSION_1_0;
+import static io.narayana.lra.LRAConstants.BATCH_PATH_NAME;
 import static io.narayana.lra.LRAConstants.CLIENT_ID_PARAM_NAME;
 import static io.narayana.lra.LRAConstants.COMPENSATE;
 import static io.narayana.lra.LRAConstants.COMPLETE;
 import static io.narayana.lra.LRAConstants.COORDINATOR_PATH_NAME;
+import static io.narayana.lra.LRAConstants.CURSOR_PARAM_NAME;
+import static io.narayana.lra.LRAConstants.LIMIT_PARAM_NAME;
 import static io.narayana.lra.LRAConstants.NARAYANA_LRA_PARTICIPANT_DATA_HEADER_NAME;
 import static io.narayana.lra.LRAConstants.PARENT_LRA_PARAM_NAME;
 import static io.narayana.lra.LRAConstants.PARTICIPANT_TIMEOUT;
+import static io.narayana.lra.LRAConstants.RECOVERING_PARAM_NAME;
 import static io.narayana.lra.LRAConstants.RECOVERY_COORDINATOR_PATH_NAME;
+import static io.narayana.lra.LRAConstants.STARTED_BEFORE_PARAM_NAME;
+import static io.narayana.lra.LRAConstants.STARTED_FROM_PARAM_NAME;
 import static io.narayana.lra.LRAConstants.STATUS;
 import static io.narayana.lra.LRAConstants.STATUS_PARAM_NAME;
 import static io.narayana.lra.LRAConstants.TIMELIMIT_PARAM_NAME;
+import static io.narayana.lra.LRAConstants.TOP_LEVEL_PARAM_NAME;
 import static io.narayana.lra.LRAConstants.CURRENT_API_VERSION_STRING;
 import static jakarta.ws.rs.core.Response.Status.BAD_REQUEST;
 import static jakarta.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR;
@@ -118,6 +136,18 @@ import static org.eclipse.microprofile.lra.annotation.ws.rs.LRA.LRA_HTTP_RECOVER
 )
 @Tag(name = "LRA Coordinator", description = "Operations to work with active LRAs (to start, to get a status, to finish, etc.)")
 public class Coordinator extends Application {
+    /**
+     * The maximum number of threads used to run the operations of a batch request
+     */
+    public static final String BATCH_THREADS_PROPERTY = "lra.coordinator.batch.threads";
+    /**
+     * The maximum number of operations in a batch request
+     */
+    public static final String BATCH_SIZE_PROPERTY = "lra.coordinator.batch.size";
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
     @Context
     private UriInfo context;
 
@@ -155,12 +185,15 @@ public class Coordinator extends Application {
     @GET
     @Path("/")
     @Produces({MediaType.APPLICATION_JSON, MediaType.TEXT_PLAIN})
-    @Operation(summary = "Returns all LRAs", description = "Gets both active and recovering LRAs")
+    @Operation(summary = "Returns all LRAs", description = "Gets both active and recovering LRAs, optionally filtered. "
+            + "If a limit is given the LRAs are returned a page at a time, ordered by uid, and a Link header with "
+            + "relation type next gives the URL of the next page")
     @APIResponses({
         @APIResponse(responseCode = "200", description = "The LRAData json array which is known to coordinator",
             content = @Content(schema = @Schema(type = SchemaType.ARRAY, implementation = LRAData.class)),
             headers = { @Header(ref = LRAConstants.NARAYANA_LRA_API_VERSION_HEADER_NAME)}),
-        @APIResponse(responseCode = "400", description = "Provided Status is not recognized as a valid LRA status value",
+        @APIResponse(responseCode = "400", description = "Provided Status is not recognized as a valid LRA status value, "
+                + "or one of the other query parameters is invalid",
             content = @Content(schema = @Schema(implementation = String.class)),
             headers = { @Header(ref = LRAConstants.NARAYANA_LRA_API_VERSION_HEADER_NAME)}),
         @APIResponse(responseCode = "417", description = "The requested version provided in HTTP Header is not supported by this end point",
@@ -169,6 +202,20 @@ public class Coordinator extends Application {
     public Response getAllLRAs(
             @Parameter(name = STATUS_PARAM_NAME, description = "Filter the returned LRAs to only those in the give state (see CompensatorStatus)")
             @QueryParam(STATUS_PARAM_NAME) @DefaultValue("") String state,
+            @Parameter(name = CLIENT_ID_PARAM_NAME, description = "Filter the returned LRAs to only those with the given client id")
+            @QueryParam(CLIENT_ID_PARAM_NAME) String clientId,
+            @Parameter(name = TOP_LEVEL_PARAM_NAME, description = "Filter the returned LRAs to only top level (true) or nested (false) ones")
+            @QueryParam(TOP_LEVEL_PARAM_NAME) String topLevel,
+            @Parameter(name = RECOVERING_PARAM_NAME, description = "Filter the returned LRAs to only recovering (true) or not recovering (false) ones")
+            @QueryParam(RECOVERING_PARAM_NAME) String recovering,
+            @Parameter(name = STARTED_FROM_PARAM_NAME, description = "Filter the returned LRAs to only those that started at or after the given time (milliseconds since the epoch)")
+            @QueryParam(STARTED_FROM_PARAM_NAME) String startedFrom,
+            @Parameter(name = STARTED_BEFORE_PARAM_NAME, description = "Filter the returned LRAs to only those that started before the given time (milliseconds since the epoch)")
+            @QueryParam(STARTED_BEFORE_PARAM_NAME) String startedBefore,
+            @Parameter(name = LIMIT_PARAM_NAME, description = "The maximum number of LRAs to return")
+            @QueryParam(LIMIT_PARAM_NAME) String limit,
+            @Parameter(name = CURSOR_PARAM_NAME, description = "Continue the listing after the LRA with this uid (taken from the next link of the previous page)")
+            @QueryParam(CURSOR_PARAM_NAME) String cursor,
             @HeaderParam(HttpHeaders.ACCEPT) @DefaultValue(MediaType.TEXT_PLAIN) String mediaType,
             @Parameter(ref = LRAConstants.NARAYANA_LRA_API_VERSION_HEADER_NAME)
             @HeaderParam(LRAConstants.NARAYANA_LRA_API_VERSION_HEADER_NAME) @DefaultValue(CURRENT_API_VERSION_STRING) String version) {
@@ -186,30 +233,94 @@ public class Coordinator extends Application {
             }
         }
 
-        List<LRAData> lras = lraService.getAll(requestedLRAStatus);
+        LRAStatus status = requestedLRAStatus;
+        Boolean isTopLevel = parseBoolean(TOP_LEVEL_PARAM_NAME, topLevel, version);
+        Boolean isRecovering = parseBoolean(RECOVERING_PARAM_NAME, recovering, version);
+        long from = parseLong(STARTED_FROM_PARAM_NAME, startedFrom, Long.MIN_VALUE, version);
+        long before = parseLong(STARTED_BEFORE_PARAM_NAME, startedBefore, Long.MAX_VALUE, version);
+        long pageSize = parseLong(LIMIT_PARAM_NAME, limit, Integer.MAX_VALUE, version);
 
-        if (mediaType.equals(MediaType.APPLICATION_JSON)) {
-            try {
-                String jsonArray = new ObjectMapper().writeValueAsString(lras);
+        if (pageSize <= 0 || pageSize > Integer.MAX_VALUE) {
+            throw badRequest(LIMIT_PARAM_NAME + " must be a positive integer", version);
+        }
 
-                return Response.ok()
-                        .entity(jsonArray)
-                        .header(NARAYANA_LRA_API_VERSION_HEADER_NAME, version)
-                        .build();
-            } catch (JsonProcessingException e) {
-                return Response.status(INTERNAL_SERVER_ERROR)
-                        .entity(e.getMessage())
-                        .header(NARAYANA_LRA_API_VERSION_HEADER_NAME, version)
-                        .build();
+        Predicate<LongRunningAction> filter = lra -> (status == null || lra.getLRAStatus() == status)
+                && (clientId == null || clientId.equals(lra.getClientId()))
+                && (isTopLevel == null || isTopLevel == lra.isTopLevel())
+                && (isRecovering == null || isRecovering == lra.isRecovering())
+                && (startedFrom == null && startedBefore == null
+                        || lra.getStartTimeMillis() >= from && lra.getStartTimeMillis() < before);
+
+        Response.ResponseBuilder builder = Response.ok().header(NARAYANA_LRA_API_VERSION_HEADER_NAME, version);
+        Collection<LongRunningAction> page = null;
+
+        if (limit != null || cursor != null) {
+            // collect one more LRA than requested to find out whether there is another page
+            SortedMap<String, LongRunningAction> lras = lraService.getPage(filter, cursor, (int) Math.min(pageSize + 1, Integer.MAX_VALUE));
+
+            if (lras.size() > pageSize) {
+                lras.remove(lras.lastKey());
+                builder.link(context.getRequestUriBuilder()
+                        .replaceQueryParam(CURSOR_PARAM_NAME, lras.lastKey())
+                        .build(), "next");
             }
+
+            page = lras.values();
+        }
+
+        if (mediaType.equals(MediaType.APPLICATION_JSON)) {
+            // write each LRA as it is visited rather than building the whole listing in memory
+            Iterable<LongRunningAction> lras = page != null ? page : () -> lraService.stream(filter).iterator();
+
+            return builder.entity((StreamingOutput) output -> {
+                try (JsonGenerator generator = JSON.getFactory().createGenerator(output)) {
+                    generator.writeStartArray();
+
+                    for (LongRunningAction lra : lras) {
+                        generator.writeObject(lra.getLRAData());
+                    }
+
+                    generator.writeEndArray();
+                }
+            }).type(MediaType.APPLICATION_JSON_TYPE).build();
         } else { // produce MediaType.TEXT_PLAIN
-            return Response.ok()
-                    .entity(lras)
-                    .header(NARAYANA_LRA_API_VERSION_HEADER_NAME, version)
-                    .build();
+            Stream<LongRunningAction> lras = page != null ? page.stream() : lraService.stream(filter);
+
+            return builder.entity(lras.map(LongRunningAction::getLRAData).collect(Collectors.toList())).build();
         }
     }
 
+    private static Boolean parseBoolean(String name, String value, String version) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        } else if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false")) {
+            return Boolean.valueOf(value);
+        }
+
+        throw badRequest(name + " " + value + " is not a valid boolean value", version);
+    }
+
+    private static long parseLong(String name, String value, long defaultValue, String version) {
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw badRequest(name + " " + value + " is not a valid number", version);
+        }
+    }
+
+    private static WebApplicationException badRequest(String errMsg, String version) {
+        LRALogger.logger.info(errMsg);
+
+        return new WebApplicationException(errMsg, Response.status(BAD_REQUEST)
+                .header(NARAYANA_LRA_API_VERSION_HEADER_NAME, version)
+                .entity(errMsg)
+                .build());
+    }
+
     @GET
     @Path("{LraId}/status")
     @Produces({MediaType.APPLICATION_JSON, MediaType.TEXT_PLAIN})
@@ -328,6 +439,27 @@ public class Coordinator extends Application {
 
         URI parentId = (parentLRA == null || parentLRA.trim().isEmpty()) ? null : toURI(parentLRA);
         String coordinatorUrl = String.format("%s%s", context.getBaseUri(), COORDINATOR_PATH_NAME);
+        URI lraId = startLRA(coordinatorUrl, parentId, clientId, timelimit, version).getId();
+
+        Current.push(lraId);
+
+        if (mediaType.equals(MediaType.APPLICATION_JSON)) {
+            JsonObject model = Json.createObjectBuilder().add("lraId", lraId.toASCIIString()).build();
+
+            return Response.ok()
+                    .entity(model)
+                    .header(NARAYANA_LRA_API_VERSION_HEADER_NAME, version).build();
+        }
+
+        return Response.created(lraId)
+                .entity(lraId.toASCIIString())
+                .header(LRA_HTTP_CONTEXT_HEADER, Current.getContexts())
+                .header(NARAYANA_LRA_API_VERSION_HEADER_NAME, version)
+                .build();
+    }
+
+    // start an LRA and, if its parent belongs to another coordinator, enlist it with the parent
+    private LongRunningAction startLRA(String coordinatorUrl, URI parentId, String clientId, Long timelimit, String version) {
         LongRunningAction lra = lraService.startLRA(coordinatorUrl, parentId, clientId, timelimit);
         URI lraId = lra.getId();
 
@@ -336,25 +468,21 @@ public class Coordinator extends Application {
             String compensatorUrl = String.format("%s/nested/%s", coordinatorUrl, LRAConstants.getLRAUid(lraId));
 
             if (!lraService.hasTransaction(parentId)) {
+                int status;
 
-                try (Client client = ClientBuilder.newClient()) {
-                    try (Response response = client.target(parentId)
+                try (ParticipantClient.Lease lease = ParticipantClient.lease(parentId)) {
+                    try (Response response = lease.getClient().target(parentId)
                             .request()
                             .header(NARAYANA_LRA_API_VERSION_HEADER_NAME, CURRENT_API_VERSION_STRING)
                             .async()
                             .put(Entity.text(compensatorUrl))
                             .get(PARTICIPANT_TIMEOUT, TimeUnit.SECONDS)) {
-
-                        if (response.getStatus() != Response.Status.OK.getStatusCode()) {
-                            String errMessage = String.format("The coordinator at %s returned an unexpected response: %d"
-                                    + "when the LRA '%s' tried to join the parent LRA '%s'", parentId, response.getStatus(), lraId, parentLRA);
-                            return Response.status(response.getStatus()).entity(errMessage).build();
-                        }
+                        status = response.getStatus();
                     }
                 } catch (Exception e) {
                     String errMsg = String.format(
                             "Cannot contact the LRA Coordinator at '%s' for LRA '%s' joining parent LRA '%s'",
-                            parentId, lraId, parentLRA);
+                            parentId, lraId, parentId);
                     LRALogger.logger.info(errMsg);
                     // don't include the root exception (it should already be in the server side logs):
                     throw new WebApplicationException(errMsg, Response.status(INTERNAL_SERVER_ERROR)
@@ -362,26 +490,120 @@ public class Coordinator extends Application {
                             .entity(errMsg)
                             .build());
                 }
+
+                if (status != Response.Status.OK.getStatusCode()) {
+                    String errMessage = String.format("The coordinator at %s returned an unexpected response: %d"
+                            + "when the LRA '%s' tried to join the parent LRA '%s'", parentId, status, lraId, parentId);
+                    throw new WebApplicationException(errMessage, Response.status(status).entity(errMessage).build());
+                }
             }
         }
 
-        Current.push(lraId);
+        return lra;
+    }
 
-        if (mediaType.equals(MediaType.APPLICATION_JSON)) {
-            JsonObject model = Json.createObjectBuilder().add("lraId", lraId.toASCIIString()).build();
+    /**
+     * Performing a POST on {@value LRAConstants#COORDINATOR_PATH_NAME}/{@value LRAConstants#BATCH_PATH_NAME} with a
+     * JSON array of operations (see {@link LRABatchOperation}) starts, closes or cancels many LRAs, or reads their
+     * status, in a single request. The operations are independent of each other and run concurrently using up to
+     * {@value #BATCH_THREADS_PROPERTY} threads (the number of processors by default). A request may contain at most
+     * {@value #BATCH_SIZE_PROPERTY} operations ({@value #DEFAULT_BATCH_SIZE} by default). The response holds a
+     * result for each operation, in the same order, with the HTTP status code that the equivalent single LRA
+     * request would have returned. Unlike a single start request, starting an LRA in a batch does not associate it
+     * with the caller.
+     */
+    @POST
+    @Path(BATCH_PATH_NAME)
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @Bulkhead
+    @Operation(summary = "Start, close, cancel or get the status of many LRAs",
+        description = "Runs each operation in the request as if it had been sent as a separate request. "
+            + "The operations run concurrently and the result of each one is reported separately.")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "The operations were run, the response body contains the result of each one",
+            content = @Content(schema = @Schema(type = SchemaType.ARRAY, implementation = LRABatchResult.class)),
+            headers = { @Header(ref = LRAConstants.NARAYANA_LRA_API_VERSION_HEADER_NAME) }),
+        @APIResponse(responseCode = "400", description = "The request did not contain a list of operations or it contained too many",
+            content = @Content(schema = @Schema(implementation = String.class))),
+        @APIResponse(responseCode = "417", description = "The requested version provided in HTTP Header is not supported by this end point",
+                content = @Content(schema = @Schema(implementation = String.class))),
+    })
+    public Response batch(
+            @RequestBody(name = "Operations", description = "The operations to run",
+                content = @Content(schema = @Schema(type = SchemaType.ARRAY, implementation = LRABatchOperation.class)))
+            List<LRABatchOperation> operations,
+            @Parameter(ref = LRAConstants.NARAYANA_LRA_API_VERSION_HEADER_NAME)
+            @HeaderParam(LRAConstants.NARAYANA_LRA_API_VERSION_HEADER_NAME) @DefaultValue(CURRENT_API_VERSION_STRING) String version) {
+        if (operations == null) {
+            throw badRequest("A batch request must contain a list of operations", version);
+        }
 
-            return Response.ok()
-                    .entity(model)
-                    .header(NARAYANA_LRA_API_VERSION_HEADER_NAME, version).build();
+        int maxSize = Integer.getInteger(BATCH_SIZE_PROPERTY, DEFAULT_BATCH_SIZE);
+
+        if (operations.size() > maxSize) {
+            throw badRequest(String.format("A batch request must not contain more than %d operations", maxSize), version);
         }
 
-        return Response.created(lraId)
-                .entity(lraId.toASCIIString())
-                .header(LRA_HTTP_CONTEXT_HEADER, Current.getContexts())
+        // the request context is not available to the threads that run the operations
+        String coordinatorUrl = String.format("%s%s", context.getBaseUri(), COORDINATOR_PATH_NAME);
+        LRABatchResult[] results = new LRABatchResult[operations.size()];
+
+        CoordinatorThreads.forEach(IntStream.range(0, results.length).boxed().collect(Collectors.toList()),
+                i -> results[i] = runOperation(operations.get(i), coordinatorUrl, version),
+                Integer.getInteger(BATCH_THREADS_PROPERTY, Runtime.getRuntime().availableProcessors()));
+
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) { // the request thread was interrupted before the operation finished
+                LRABatchOperation operation = operations.get(i);
+
+                results[i] = new LRABatchResult(operation == null ? null : operation.getType(),
+                        operation == null ? null : operation.getLraId(), null,
+                        Response.Status.SERVICE_UNAVAILABLE.getStatusCode(), "The batch was interrupted");
+            }
+        }
+
+        return Response.ok(Arrays.asList(results))
                 .header(NARAYANA_LRA_API_VERSION_HEADER_NAME, version)
                 .build();
     }
 
+    private LRABatchResult runOperation(LRABatchOperation operation, String coordinatorUrl, String version) {
+        LRABatchOperation.Type type = operation == null ? null : operation.getType();
+        URI lraId = operation == null ? null : operation.getLraId();
+
+        try {
+            if (type == null) {
+                return new LRABatchResult(null, lraId, null, BAD_REQUEST.getStatusCode(), "Missing operation type");
+            } else if (type == LRABatchOperation.Type.START) {
+                String clientId = operation.getClientId() == null ? "" : operation.getClientId();
+                LongRunningAction lra = startLRA(coordinatorUrl, operation.getParentLRA(), clientId, operation.getTimeLimit(), version);
+
+                return new LRABatchResult(type, lra.getId(), LRAStatus.Active, Response.Status.CREATED.getStatusCode(), null);
+            } else if (lraId == null) {
+                return new LRABatchResult(type, null, null, BAD_REQUEST.getStatusCode(), "Missing LRA id");
+            }
+
+            lraId = toURI(lraId.toASCIIString());
+
+            LRAStatus status;
+
+            if (type == LRABatchOperation.Type.STATUS) {
+                status = lraService.getTransaction(lraId).getLRAStatus();
+            } else {
+                status = lraService.endLRA(lraId, type == LRABatchOperation.Type.CANCEL, false, "", "").getStatus();
+            }
+
+            return new LRABatchResult(type, lraId, status == null ? LRAStatus.Active : status, OK.getStatusCode(), null);
+        } catch (WebApplicationException e) {
+            return new LRABatchResult(type, lraId, null, e.getResponse().getStatus(), e.getMessage());
+        } catch (RuntimeException e) {
+            LRALogger.logger.debugf(e, "Batch operation %s failed", operation);
+
+            return new LRABatchResult(type, lraId, null, INTERNAL_SERVER_ERROR.getStatusCode(), e.getMessage());
+        }
+    }
+
     @PUT
     @Path("{LraId}/renew")
     @Operation(summary = "Update the TimeLimit for an existing LRA",
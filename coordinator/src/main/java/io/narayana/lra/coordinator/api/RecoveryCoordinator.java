@@ -28,6 +28,7 @@ import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
@@ -35,8 +36,12 @@ import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriInfo;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.SortedMap;
 
+import static io.narayana.lra.LRAConstants.CURSOR_PARAM_NAME;
+import static io.narayana.lra.LRAConstants.LIMIT_PARAM_NAME;
 import static jakarta.ws.rs.core.Response.Status.BAD_REQUEST;
 import static jakarta.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR;
 import static jakarta.ws.rs.core.Response.Status.NOT_FOUND;
@@ -155,11 +160,45 @@ public class RecoveryCoordinator {
     @Operation(summary = "List failed Long Running Actions",
             description = "Returns LRAs that have failed. " +
                     " Failure records are vital pieces of data needed to aid failure tracking and analysis " +
-                    " and are retained for inspection.")
-    @APIResponse(responseCode = "200",
-            content = @Content(schema = @Schema(type = SchemaType.ARRAY, implementation = LRAData.class)))
-    public List<LRAData> getFailedLRAs() {
-        return lraService.getFailedLRAs();
+                    " and are retained for inspection. If a limit is given the LRAs are returned a page at a time, " +
+                    " ordered by uid, and a Link header with relation type next gives the URL of the next page.")
+    @APIResponses({
+        @APIResponse(responseCode = "200",
+            content = @Content(schema = @Schema(type = SchemaType.ARRAY, implementation = LRAData.class))),
+        @APIResponse(responseCode = "400", description = "The limit is not a positive integer")
+    })
+    public Response getFailedLRAs(
+            @Parameter(name = LIMIT_PARAM_NAME, description = "The maximum number of LRAs to return")
+            @QueryParam(LIMIT_PARAM_NAME) String limit,
+            @Parameter(name = CURSOR_PARAM_NAME, description = "Continue the listing after the LRA with this uid (taken from the next link of the previous page)")
+            @QueryParam(CURSOR_PARAM_NAME) String cursor,
+            @Context UriInfo uriInfo) {
+        int pageSize = Integer.MAX_VALUE;
+
+        if (limit != null) {
+            try {
+                pageSize = Integer.parseInt(limit);
+            } catch (NumberFormatException e) {
+                pageSize = 0;
+            }
+
+            if (pageSize <= 0) {
+                String errMsg = LIMIT_PARAM_NAME + " " + limit + " is not a positive integer";
+                LRALogger.logger.info(errMsg);
+                throw new WebApplicationException(errMsg, Response.status(BAD_REQUEST).entity(errMsg).build());
+            }
+        }
+
+        // ask for one more LRA than requested to find out whether there is another page
+        SortedMap<String, LRAData> lras = lraService.getFailedLRAs(cursor, pageSize == Integer.MAX_VALUE ? pageSize : pageSize + 1);
+        Response.ResponseBuilder builder = Response.ok();
+
+        if (lras.size() > pageSize) {
+            lras.remove(lras.lastKey());
+            builder.link(uriInfo.getRequestUriBuilder().replaceQueryParam(CURSOR_PARAM_NAME, lras.lastKey()).build(), "next");
+        }
+
+        return builder.entity(new ArrayList<>(lras.values())).build();
     }
 
     @DELETE
@@ -212,7 +251,7 @@ public class RecoveryCoordinator {
     }
 
     private Response removeLog(String lra) {
-        if (lraService.removeLog(lra)) {
+        if (lraService.removeFailedLog(lra)) {
             // 204 the log for the LRA was successfully removed
             return Response.noContent().build(); // return 204
         }
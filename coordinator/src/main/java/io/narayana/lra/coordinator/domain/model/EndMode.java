@@ -0,0 +1,42 @@
+/*
+   Copyright The Narayana Authors
+   SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.narayana.lra.coordinator.domain.model;
+
+import io.narayana.lra.logging.LRALogger;
+
+/**
+ * Controls how the participants of an LRA are told to complete or compensate when the LRA ends.
+ * The mode is read from the system property {@value #END_MODE_PROPERTY} every time an LRA ends.
+ */
+public enum EndMode {
+    /**
+     * Participants are notified one at a time, on close in the reverse order from which they joined
+     * (this is the ordering required by the specification and is the default).
+     */
+    ORDERED,
+    /**
+     * Independent participants are notified concurrently. The outcome of each notification is then
+     * processed in the usual order so the LRA ends in the same state as it would in {@link #ORDERED} mode.
+     */
+    PARALLEL;
+
+    public static final String END_MODE_PROPERTY = "lra.coordinator.end.mode";
+
+    static EndMode current() {
+        String mode = System.getProperty(END_MODE_PROPERTY);
+
+        if (mode == null || mode.isEmpty()) {
+            return ORDERED;
+        }
+
+        try {
+            return valueOf(mode.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            LRALogger.logger.warnf("Ignoring invalid value '%s' for system property %s", mode, END_MODE_PROPERTY);
+            return ORDERED;
+        }
+    }
+}
@@ -16,6 +16,8 @@ import io.narayana.lra.Current;
 import io.narayana.lra.LRAConstants;
 import io.narayana.lra.LRAData;
 import io.narayana.lra.coordinator.domain.service.LRAService;
+import io.narayana.lra.coordinator.internal.ParticipantClient;
+import io.narayana.lra.coordinator.internal.ParticipantRetries;
 import io.narayana.lra.logging.LRALogger;
 import jakarta.ws.rs.core.HttpHeaders;
 import org.eclipse.microprofile.lra.annotation.LRAStatus;
@@ -24,8 +26,6 @@ import org.eclipse.microprofile.lra.annotation.ws.rs.LRA;
 
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.client.AsyncInvoker;
-import jakarta.ws.rs.client.Client;
-import jakarta.ws.rs.client.ClientBuilder;
 import jakarta.ws.rs.client.Entity;
 import jakarta.ws.rs.client.Invocation;
 import jakarta.ws.rs.client.WebTarget;
@@ -43,6 +43,9 @@ import java.util.Arrays;
 import java.util.Objects;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
@@ -77,7 +80,9 @@ public class LRAParticipantRecord extends AbstractRecord implements Comparable<A
     private LRAService lraService;
     private ParticipantStatus status;
     private boolean accepted;
+    private String retryAfter; // the Retry-After header of the last response from the participant
     private LongRunningAction lra;
+    private Integer notifiedOutcome; // the outcome of an end notification made ahead of the record list walk
 
     public LRAParticipantRecord() {
     }
@@ -264,21 +269,54 @@ public class LRAParticipantRecord extends AbstractRecord implements Comparable<A
         return doEnd(lra.isCancel());
     }
 
+    /**
+     * Ask the participant to complete or compensate ahead of the {@link #topLevelCommit()} or
+     * {@link #topLevelAbort()} call that the owning LRA makes when it walks its record lists.
+     * The outcome is remembered and returned by the next end call. The caller must hold the LRA lock
+     * until the returned stage has completed.
+     *
+     * @return a stage that completes when the outcome of the notification is known
+     */
+    CompletionStage<Void> notifyEndAsync() {
+        return endAsync(lra.isCancel()).thenAccept(outcome -> notifiedOutcome = outcome);
+    }
+
+    /**
+     * Discard the outcome of a notification made by {@link #notifyEndAsync()} that was not consumed by an end call.
+     */
+    void clearNotifiedOutcome() {
+        notifiedOutcome = null;
+    }
+
     private int doEnd(boolean compensate) {
         assert lraService != null;
 
+        if (notifiedOutcome != null) {
+            int outcome = notifiedOutcome;
+
+            notifiedOutcome = null;
+
+            return outcome;
+        }
+
         ReentrantLock lock = lraService.lockTransaction(lraId);
 
         try {
-            return tryDoEnd(compensate);
+            return await(endAsync(compensate));
         } finally {
             lock.unlock();
         }
     }
 
-    private int tryDoEnd(boolean compensate) {
+    /**
+     * Ask the participant to complete or compensate. The calling thread is only used to decide what needs
+     * to be done and to start the request, the response is processed when it arrives.
+     *
+     * @param compensate whether the participant should compensate (or complete)
+     * @return a stage that completes with the {@link TwoPhaseOutcome} of the request
+     */
+    private CompletionStage<Integer> endAsync(boolean compensate) {
         URI endPath;
-        Client client = null;
 
         if (LRALogger.logger.isTraceEnabled()) {
             trace_progress("finishing");
@@ -317,78 +355,126 @@ public class LRAParticipantRecord extends AbstractRecord implements Comparable<A
 
         // NB trying to compensate when already completed is allowed (for nested LRAs)
 
-        int httpStatus = -1;
+        boolean isCompensate = compensate;
 
         if (accepted) {
+            if (ParticipantRetries.isEnabled() && !ParticipantRetries.isDue(recoveryURI.toASCIIString())) {
+                return CompletableFuture.completedFuture(TwoPhaseOutcome.HEURISTIC_HAZARD); // still backing off
+            }
+
             // the participant has previously returned a HTTP 202 Accepted response
             // to indicate that it is in progress in which case the status URI
             // must be valid so try that first for the status
-            int twoPhaseOutcome = retryGetEndStatus(endPath, compensate);
-
-            if (twoPhaseOutcome != -1) {
-                return atEnd(twoPhaseOutcome);
-            }
-        } else {
-            httpStatus = tryLocalEndInvocation(endPath); // see if participant is in the same JVM
+            return retryGetEndStatus(endPath, compensate).thenCompose(twoPhaseOutcome ->
+                    twoPhaseOutcome != -1 ? atEnd(twoPhaseOutcome) : invokeEnd(endPath, isCompensate))
+                    .thenApply(this::scheduleRetry);
         }
 
+        int httpStatus = tryLocalEndInvocation(endPath); // see if participant is in the same JVM
+
         if (httpStatus == -1) {
             // the local invocation was not made so fallback to using JAX-RS
+            return invokeEnd(endPath, compensate).thenApply(this::scheduleRetry);
+        }
 
-            if (LRALogger.logger.isTraceEnabled()) {
-                trace_progress("notifying participant");
+        return endResponse(endPath, compensate, httpStatus).thenApply(this::scheduleRetry);
+    }
+
+    // if participants back off then schedule the next attempt to finish this one, or forget it if it has finished
+    private int scheduleRetry(int outcome) {
+        if (ParticipantRetries.isEnabled()) {
+            String participant = recoveryURI.toASCIIString();
+
+            if (accepted && outcome == TwoPhaseOutcome.HEURISTIC_HAZARD) {
+                LRAService service = lraService;
+                Uid lraUid = lra.get_uid();
+
+                ParticipantRetries.retryLater(participant, retryAfter, () -> service.recover(lraUid));
+            } else {
+                ParticipantRetries.finished(participant);
             }
+        }
 
-            try {
-                // ask the participant to complete or compensate
-                client = ClientBuilder.newClient();
-                Response response = client.target(endPath)
-                        .request()
-                        .header(LRA_HTTP_CONTEXT_HEADER, lraId.toASCIIString())
-                        .header(LRA_HTTP_PARENT_CONTEXT_HEADER, parentId) // make the context available to participants
-                        .header(LRA_HTTP_RECOVERY_HEADER, recoveryURI.toASCIIString())
-                        .header(NARAYANA_LRA_PARTICIPANT_DATA_HEADER_NAME, compensatorData)
-                        .async()
-                        .put(Entity.text(""))
-                        .get(PARTICIPANT_TIMEOUT, TimeUnit.SECONDS);
+        retryAfter = null;
 
-                httpStatus = response.getStatus();
+        return outcome;
+    }
 
-                accepted = httpStatus == Response.Status.ACCEPTED.getStatusCode();
+    private CompletionStage<Integer> invokeEnd(URI endPath, boolean compensate) {
+        if (LRALogger.logger.isTraceEnabled()) {
+            trace_progress("notifying participant");
+        }
 
-                if (accepted && statusURI == null && response.getHeaderString(HttpHeaders.LOCATION) != null) {
-                    // the participant could not finish immediately and we have no status URI so one should be
-                    // present in the Location header
-                    statusURI = URI.create(response.getHeaderString(HttpHeaders.LOCATION));
-                }
+        ParticipantClient.Lease lease = ParticipantClient.lease(endPath);
+        CompletionStage<Integer> httpStatus;
 
-                if (httpStatus == Response.Status.GONE.getStatusCode()) {
-                    updateStatus(compensate);
-                    return atEnd(TwoPhaseOutcome.FINISH_OK); // the participant must have finished ok but we lost the response
-                }
+        try {
+            // ask the participant to complete or compensate
+            httpStatus = withTimeout(lease, lease.getClient().target(endPath)
+                    .request()
+                    .header(LRA_HTTP_CONTEXT_HEADER, lraId.toASCIIString())
+                    .header(LRA_HTTP_PARENT_CONTEXT_HEADER, parentId) // make the context available to participants
+                    .header(LRA_HTTP_RECOVERY_HEADER, recoveryURI.toASCIIString())
+                    .header(NARAYANA_LRA_PARTICIPANT_DATA_HEADER_NAME, compensatorData)
+                    .rx()
+                    .put(Entity.text("")))
+                    .thenApply(response -> {
+                        try (response) {
+                            int code = response.getStatus();
+
+                            accepted = code == Response.Status.ACCEPTED.getStatusCode();
+                            retryAfter = response.getHeaderString(HttpHeaders.RETRY_AFTER);
+
+                            if (accepted && statusURI == null && response.getHeaderString(HttpHeaders.LOCATION) != null) {
+                                // the participant could not finish immediately and we have no status URI so one should be
+                                // present in the Location header
+                                statusURI = URI.create(response.getHeaderString(HttpHeaders.LOCATION));
+                            }
+
+                            if (code != Response.Status.GONE.getStatusCode() && response.hasEntity()) {
+                                responseData = response.readEntity(String.class);
+                            }
+
+                            return code;
+                        }
+                    });
+        } catch (RuntimeException e) {
+            httpStatus = CompletableFuture.failedFuture(e);
+        }
+
+        return httpStatus.handle((code, failure) -> {
+            lease.close(failure);
+
+            if (LRALogger.logger.isTraceEnabled()) {
+                trace_progress("notified participant");
+            }
+
+            if (failure != null) {
+                Throwable cause = unwrap(failure);
 
-                if (response.hasEntity()) {
-                    responseData = response.readEntity(String.class);
-                }
-            } catch (Exception e) {
                 if (LRALogger.logger.isInfoEnabled()) {
                     LRALogger.logger.infof("LRAParticipantRecord.doEnd(%s) HTTP PUT at %s failed for LRA %s (reason: %s)",
-                            compensate ? "compensate" : "complete", endPath, lraId, e.getMessage());
+                            compensate ? "compensate" : "complete", endPath, lraId, cause.getMessage());
                     if (LRALogger.logger.isDebugEnabled()) {
-                        LRALogger.logger.debug("LRAParticipantRecord.doEnd stacktrace", e);
+                        LRALogger.logger.debug("LRAParticipantRecord.doEnd stacktrace", cause);
                     }
                 }
-            } finally {
-                if (LRALogger.logger.isTraceEnabled()) {
-                    trace_progress("notified participant");
-                }
 
-                if (client != null) {
-                    client.close();
-                }
+                return -1;
             }
-        }
 
+            return code;
+        }).thenCompose(code -> {
+            if (code == Response.Status.GONE.getStatusCode()) {
+                updateStatus(compensate);
+                return atEnd(TwoPhaseOutcome.FINISH_OK); // the participant must have finished ok but we lost the response
+            }
+
+            return endResponse(endPath, compensate, code);
+        });
+    }
+
+    private CompletionStage<Integer> endResponse(URI endPath, boolean compensate, int httpStatus) {
         if (responseData != null &&
                 httpStatus == Response.Status.INTERNAL_SERVER_ERROR.getStatusCode()) {
             // the body should contain a valid ParticipantStatus
@@ -447,10 +533,12 @@ public class LRAParticipantRecord extends AbstractRecord implements Comparable<A
         return status == ParticipantStatus.FailedToCompensate || status == ParticipantStatus.FailedToComplete;
     }
 
-    private boolean afterLRARequest(URI target, String payload) {
+    private CompletionStage<Boolean> afterLRARequest(URI target, String payload) {
+        ParticipantClient.Lease lease = ParticipantClient.lease(target);
+        CompletionStage<Boolean> notified;
 
-        try (Client client = ClientBuilder.newClient()) {
-            Invocation.Builder builder = client.target(target)
+        try {
+            Invocation.Builder builder = lease.getClient().target(target)
                     .request()
                     .header(LRA_HTTP_RECOVERY_HEADER, recoveryURI.toASCIIString())
                     .header(NARAYANA_LRA_PARTICIPANT_DATA_HEADER_NAME, compensatorData);
@@ -464,33 +552,40 @@ public class LRAParticipantRecord extends AbstractRecord implements Comparable<A
                 builder.header(LRA.LRA_HTTP_CONTEXT_HEADER, lra.getId().toASCIIString());
             }
 
-            Future<Response> responseFuture = target.equals(forgetURI) ? builder.async().delete()
-                    : builder.async().put(Entity.text(payload));
-            Response response = responseFuture.get(PARTICIPANT_TIMEOUT, TimeUnit.SECONDS);
+            notified = withTimeout(lease, target.equals(forgetURI) ? builder.rx().delete()
+                    : builder.rx().put(Entity.text(payload)))
+                    .thenApply(response -> {
+                        try (response) {
+                            return response.getStatus() == 200;
+                        }
+                    });
+        } catch (RuntimeException e) {
+            notified = CompletableFuture.failedFuture(e);
+        }
 
-            if (response.getStatus() == 200) {
-                if (LRALogger.logger.isTraceEnabled()) {
-                    trace_progress("notified participant");
-                }
-                return true;
+        return notified.handle((ok, failure) -> {
+            lease.close(failure);
+
+            if (failure != null) {
+                LRALogger.i18nLogger.warn_cannotNotifyAfterLRAURI(target, unwrap(failure));
+            } else if (ok && LRALogger.logger.isTraceEnabled()) {
+                trace_progress("notified participant");
             }
-        } catch (Exception e) {
-            LRALogger.i18nLogger.warn_cannotNotifyAfterLRAURI(target, e);
-        } finally {
+
             if (LRALogger.logger.isTraceEnabled()) {
                 trace_progress("finished notifying participant");
             }
-        }
 
-        return false;
+            return failure == null && ok;
+        });
     }
 
-    private int atEnd(int res) {
+    private CompletionStage<Integer> atEnd(int res) {
         if (parentId != null
                 && (status == ParticipantStatus.Completed || status == ParticipantStatus.FailedToComplete)) {
             if (lraService.getLRA(parentId).getStatus() == LRAStatus.Active) {
                 // completed nested participants must remain compensatable
-                return TwoPhaseOutcome.HEURISTIC_HAZARD; // ask to be called again
+                return CompletableFuture.completedFuture(TwoPhaseOutcome.HEURISTIC_HAZARD); // ask to be called again
             } else {
                 // the parent is finishing so this is the post LRA invocation
                 return runPostLRAActions();
@@ -501,42 +596,49 @@ public class LRAParticipantRecord extends AbstractRecord implements Comparable<A
         // check the participant first since it will have been removed from one of the lists
         if (!isFinished() || !lra.isFinished()) {
             if (afterURI != null) {
-                return TwoPhaseOutcome.HEURISTIC_HAZARD;
+                return CompletableFuture.completedFuture(TwoPhaseOutcome.HEURISTIC_HAZARD);
             }
 
-            return res;
+            return CompletableFuture.completedFuture(res);
         }
 
         return runPostLRAActions();
     }
 
-    private int runPostLRAActions() {
+    private CompletionStage<Integer> runPostLRAActions() {
         LRAStatus lraStatus = lra.getLRAStatus();
-        boolean report = false;
+        boolean failed = false;
 
         if (lraStatus == LRAStatus.Cancelling) {
-            report = isFailed();
-            lraStatus = report ? LRAStatus.FailedToCancel : LRAStatus.Cancelled;
+            failed = isFailed();
+            lraStatus = failed ? LRAStatus.FailedToCancel : LRAStatus.Cancelled;
         } else if (lraStatus == LRAStatus.Closing) {
-            report = isFailed();
-            lraStatus = report ? LRAStatus.FailedToClose : LRAStatus.Closed;
+            failed = isFailed();
+            lraStatus = failed ? LRAStatus.FailedToClose : LRAStatus.Closed;
         }
 
-        if (afterURI == null || afterLRARequest(afterURI, lraStatus.name())) {
-            afterURI = null;
+        String endStatus = lraStatus.name();
+        boolean report = failed;
+        CompletionStage<Boolean> notified = afterURI == null
+                ? CompletableFuture.completedFuture(true) : afterLRARequest(afterURI, endStatus);
 
-            if (LRALogger.logger.isTraceEnabled()) {
-                trace_progress("runPostLRAActions with afterURI");
+        return notified.thenApply(ok -> {
+            if (ok) {
+                afterURI = null;
+
+                if (LRALogger.logger.isTraceEnabled()) {
+                    trace_progress("runPostLRAActions with afterURI");
+                }
+                // the post LRA actions succeeded so remove the participant from the intentions list otherwise retry
+                return report ? reportFailure(endStatus) : TwoPhaseOutcome.FINISH_OK;
             }
-            // the post LRA actions succeeded so remove the participant from the intentions list otherwise retry
-            return report ? reportFailure(lraStatus.name()) : TwoPhaseOutcome.FINISH_OK;
-        }
 
-        if (LRALogger.logger.isTraceEnabled()) {
-            trace_progress("runPostLRAActions");
-        }
+            if (LRALogger.logger.isTraceEnabled()) {
+                trace_progress("runPostLRAActions");
+            }
 
-        return report ? reportFailure(lraStatus.name()) : TwoPhaseOutcome.HEURISTIC_HAZARD;
+            return report ? reportFailure(endStatus) : TwoPhaseOutcome.HEURISTIC_HAZARD;
+        });
     }
 
     private void updateStatus(boolean compensate) {
@@ -568,7 +670,7 @@ public class LRAParticipantRecord extends AbstractRecord implements Comparable<A
         return TwoPhaseOutcome.FINISH_ERROR;
     }
 
-    private int retryGetEndStatus(URI endPath, boolean compensate) {
+    private CompletionStage<Integer> retryGetEndStatus(URI endPath, boolean compensate) {
         assert accepted;
 
         // the participant has previously returned a HTTP 202 Accepted response so the status URI
@@ -594,104 +696,124 @@ public class LRAParticipantRecord extends AbstractRecord implements Comparable<A
                 if (cStatus == null) {
                     LRALogger.logger.warnf("LRAParticipantRecord.retryGetEndStatus: local LRA %s accepted but has a null status",
                             endPath);
-                    return -1; // shouldn't happen since it imples it's still be active - force end to be called
+                    return CompletableFuture.completedFuture(-1); // shouldn't happen since it imples it's still be active - force end to be called
                 }
 
                 switch (cStatus) {
                     case Closed:
                     case Cancelled:
-                        return TwoPhaseOutcome.FINISH_OK;
+                        return CompletableFuture.completedFuture(TwoPhaseOutcome.FINISH_OK);
                     case Closing:
                     case Cancelling:
-                        return TwoPhaseOutcome.HEURISTIC_HAZARD;
+                        return CompletableFuture.completedFuture(TwoPhaseOutcome.HEURISTIC_HAZARD);
                     case FailedToClose:
                     case FailedToCancel:
-                        return reportFailure(compensate, endPath, "unknown");
+                        return CompletableFuture.completedFuture(reportFailure(compensate, endPath, "unknown"));
                     default:
-                        return TwoPhaseOutcome.HEURISTIC_HAZARD;
+                        return CompletableFuture.completedFuture(TwoPhaseOutcome.HEURISTIC_HAZARD);
                 }
             }
         } else if (statusURI != null) {
             // it is a standard participant - check the status URI
-            Response response;
+            ParticipantClient.Lease lease = ParticipantClient.lease(statusURI);
+            CompletionStage<Integer> outcome;
 
-            try (Client client = ClientBuilder.newClient()) {
+            try {
                 // since this method is called from the recovery thread do not block
-                response = client.target(statusURI)//.path(getLRAId(lraId))
+                outcome = withTimeout(lease, lease.getClient().target(statusURI)//.path(getLRAId(lraId))
                         .request()
                         .header(LRA_HTTP_CONTEXT_HEADER, lraId.toASCIIString())
                         .header(LRA_HTTP_RECOVERY_HEADER, recoveryURI.toASCIIString())
                         .header(LRA_HTTP_PARENT_CONTEXT_HEADER, parentId)
                         .header(NARAYANA_LRA_PARTICIPANT_DATA_HEADER_NAME, compensatorData)
-                        .async()
-                        .get()
-                        .get(PARTICIPANT_TIMEOUT, TimeUnit.SECONDS); // if the attempt times out the catch block below will return a heuristic
-
-                // 200 and 410 are the only valid response code for reporting the participant status
-                if (response.getStatus() == Response.Status.GONE.getStatusCode()) {
-                    /*
-                     * The specification states (in section 3.2.10. Reporting the status of a participant):
-                     * If the participant has already responded successfully to an @Compensate or @Complete method
-                     * invocation then it MAY report 410 Gone HTTP status code
-                     *
-                     * This means that if the participant was asked to compensate then it has now compensated, or
-                     * if the participant was asked to complete then it has now completed.
-                     */
-                    status = compensate ? ParticipantStatus.Compensated : ParticipantStatus.Completed;
-                    return TwoPhaseOutcome.FINISH_OK;
-                } else if (response.getStatus() == Response.Status.ACCEPTED.getStatusCode() ||
-                        Response.Status.Family.familyOf(response.getStatus()).equals(
-                                Response.Status.Family.SERVER_ERROR)) {
-                    // these response codes indicate that the implementation should retry later
-                    return TwoPhaseOutcome.HEURISTIC_HAZARD;
-                } else if (response.getStatus() == Response.Status.OK.getStatusCode() &&
-                        response.hasEntity()) {
-                    // the participant is available again and has reported its status
-                    status = ParticipantStatus.valueOf(response.readEntity(String.class));
-
-                    switch (status) {
-                        case Completed:
-                        case Compensated:
-                            return TwoPhaseOutcome.FINISH_OK;
-                        case Completing:
-                        case Compensating:
-                            // still in progress - make sure recovery keeps retrying it
-                            return TwoPhaseOutcome.HEURISTIC_HAZARD;
-                        case FailedToCompensate:
-                        case FailedToComplete:
-                            // the participant could not finish - log a warning and forget
-                            LRALogger.logger.warnf(
-                                    "LRAParticipantRecord.doEnd(compensate %b) get status %s did not finish: %s: WILL NOT RETRY",
-                                    compensate, endPath, status);
-
-                            if (forgetURI != null) {
-                                if (!forget()) {
-                                    // we will retry the forget on the next recovery cycle
-                                    return TwoPhaseOutcome.HEURISTIC_HAZARD;
-                                }
+                        .rx()
+                        .get()) // if the attempt times out the handler below will return a heuristic
+                        .thenCompose(response -> {
+                            try (response) {
+                                retryAfter = response.getHeaderString(HttpHeaders.RETRY_AFTER);
+                                return endStatus(response, endPath, compensate);
                             }
+                        });
+            } catch (RuntimeException e) {
+                outcome = CompletableFuture.failedFuture(e);
+            } finally {
+                Current.pop();
+            }
 
-                            return reportFailure(compensate, endPath, "Unknown");
-                        default:
-                            return TwoPhaseOutcome.HEURISTIC_HAZARD;
-                    }
-                }
-            } catch (Throwable e) {
-                if (LRALogger.logger.isInfoEnabled()) {
-                    LRALogger.logger.infof("LRAParticipantRecord.doEnd status URI %s is invalid (%s)",
-                            statusURI, e.getMessage());
-                }
+            return outcome.handle((twoPhaseOutcome, failure) -> {
+                lease.close(failure);
 
-                return TwoPhaseOutcome.HEURISTIC_HAZARD; // force recovery to keep retrying
-            } finally {
                 if (LRALogger.logger.isTraceEnabled()) {
                     trace_progress("retryGetEndStatus");
                 }
-                Current.pop();
+
+                if (failure != null) {
+                    if (LRALogger.logger.isInfoEnabled()) {
+                        LRALogger.logger.infof("LRAParticipantRecord.doEnd status URI %s is invalid (%s)",
+                                statusURI, unwrap(failure).getMessage());
+                    }
+
+                    return TwoPhaseOutcome.HEURISTIC_HAZARD; // force recovery to keep retrying
+                }
+
+                return twoPhaseOutcome;
+            });
+        }
+
+        return CompletableFuture.completedFuture(-1);
+    }
+
+    private CompletionStage<Integer> endStatus(Response response, URI endPath, boolean compensate) {
+        // 200 and 410 are the only valid response code for reporting the participant status
+        if (response.getStatus() == Response.Status.GONE.getStatusCode()) {
+            /*
+             * The specification states (in section 3.2.10. Reporting the status of a participant):
+             * If the participant has already responded successfully to an @Compensate or @Complete method
+             * invocation then it MAY report 410 Gone HTTP status code
+             *
+             * This means that if the participant was asked to compensate then it has now compensated, or
+             * if the participant was asked to complete then it has now completed.
+             */
+            status = compensate ? ParticipantStatus.Compensated : ParticipantStatus.Completed;
+            return CompletableFuture.completedFuture(TwoPhaseOutcome.FINISH_OK);
+        } else if (response.getStatus() == Response.Status.ACCEPTED.getStatusCode() ||
+                Response.Status.Family.familyOf(response.getStatus()).equals(
+                        Response.Status.Family.SERVER_ERROR)) {
+            // these response codes indicate that the implementation should retry later
+            return CompletableFuture.completedFuture(TwoPhaseOutcome.HEURISTIC_HAZARD);
+        } else if (response.getStatus() == Response.Status.OK.getStatusCode() &&
+                response.hasEntity()) {
+            // the participant is available again and has reported its status
+            status = ParticipantStatus.valueOf(response.readEntity(String.class));
+
+            switch (status) {
+                case Completed:
+                case Compensated:
+                    return CompletableFuture.completedFuture(TwoPhaseOutcome.FINISH_OK);
+                case Completing:
+                case Compensating:
+                    // still in progress - make sure recovery keeps retrying it
+                    return CompletableFuture.completedFuture(TwoPhaseOutcome.HEURISTIC_HAZARD);
+                case FailedToCompensate:
+                case FailedToComplete:
+                    // the participant could not finish - log a warning and forget
+                    LRALogger.logger.warnf(
+                            "LRAParticipantRecord.doEnd(compensate %b) get status %s did not finish: %s: WILL NOT RETRY",
+                            compensate, endPath, status);
+
+                    if (forgetURI != null) {
+                        // if the forget fails we will retry it on the next recovery cycle
+                        return forgetAsync().thenApply(forgotten -> forgotten
+                                ? reportFailure(compensate, endPath, "Unknown") : TwoPhaseOutcome.HEURISTIC_HAZARD);
+                    }
+
+                    return CompletableFuture.completedFuture(reportFailure(compensate, endPath, "Unknown"));
+                default:
+                    return CompletableFuture.completedFuture(TwoPhaseOutcome.HEURISTIC_HAZARD);
             }
         }
 
-        return -1;
+        return CompletableFuture.completedFuture(-1);
     }
 
     private Future<Response> getAsyncResponse(WebTarget target, String method, AsyncInvoker asyncInvoker, String cData) {
@@ -796,51 +918,102 @@ public class LRAParticipantRecord extends AbstractRecord implements Comparable<A
     }
 
     boolean forget() {
-        Client client = null;
+        return await(forgetAsync());
+    }
 
-        if (forgetURI != null) {
-            try {
-                client = ClientBuilder.newClient();
-                Response response = client.target(forgetURI)//.path(getLRAId(lraId))
-                    .request()
-                    .header(LRA_HTTP_CONTEXT_HEADER, lraId)
-                    .header(LRA_HTTP_RECOVERY_HEADER, recoveryURI)
-                    .header(LRA_HTTP_PARENT_CONTEXT_HEADER, parentId)
-                    .header(NARAYANA_LRA_PARTICIPANT_DATA_HEADER_NAME, compensatorData)
-                    .async()
-                    .delete()
-                    .get(PARTICIPANT_TIMEOUT, TimeUnit.SECONDS);
+    CompletionStage<Boolean> forgetAsync() {
+        if (forgetURI == null) {
+            LRALogger.logger.warnf(
+                "LRAParticipantRecord.forget() LRA: %s: cannot forget %s: missing forget URI, status: %s",
+                lraId, recoveryURI, status);
 
-                if (response.getStatus() == Response.Status.OK.getStatusCode()) {
-                    forgetURI = null; // succeeded so dispose of the endpoint
-                    return true;
-                }
-            } catch (Exception e) {
-                Exception exception = e;
+            return CompletableFuture.completedFuture(true);
+        }
+
+        URI target = forgetURI;
+        ParticipantClient.Lease lease = ParticipantClient.lease(target);
+        CompletionStage<Boolean> forgotten;
+
+        try {
+            forgotten = withTimeout(lease, lease.getClient().target(target)//.path(getLRAId(lraId))
+                .request()
+                .header(LRA_HTTP_CONTEXT_HEADER, lraId)
+                .header(LRA_HTTP_RECOVERY_HEADER, recoveryURI)
+                .header(LRA_HTTP_PARENT_CONTEXT_HEADER, parentId)
+                .header(NARAYANA_LRA_PARTICIPANT_DATA_HEADER_NAME, compensatorData)
+                .rx()
+                .delete())
+                .thenApply(response -> {
+                    try (response) {
+                        return response.getStatus() == Response.Status.OK.getStatusCode();
+                    }
+                });
+        } catch (RuntimeException e) {
+            forgotten = CompletableFuture.failedFuture(e);
+        } finally {
+            Current.pop();
+        }
+
+        return forgotten.handle((ok, failure) -> {
+            lease.close(failure);
+
+            if (LRALogger.logger.isTraceEnabled()) {
+                trace_progress("forget");
+            }
+
+            if (failure != null) {
+                Throwable exception = unwrap(failure);
                 Throwable cause = exception.getCause();
                 if (!(exception instanceof WebApplicationException) && cause instanceof WebApplicationException) {
-                    exception = (WebApplicationException) cause;
+                    exception = cause;
                 }
                 LRALogger.logger.infof("LRAParticipantRecord.forget delete %s failed for LRA %s (reason %s)",
-                    forgetURI, lraId, exception.getMessage());
+                    target, lraId, exception.getMessage());
                 return false; // force recovery to keep retrying
-            } finally {
-                if (LRALogger.logger.isTraceEnabled()) {
-                    trace_progress("forget");
-                }
-                Current.pop();
-                if (client != null) {
-                    client.close();
+            }
+
+            if (ok) {
+                forgetURI = null; // succeeded so dispose of the endpoint
+            }
+
+            return true;
+        });
+    }
+
+    // stop waiting for a participant after the timeout, and close the response if it arrives after that
+    private static CompletableFuture<Response> withTimeout(ParticipantClient.Lease lease,
+                                                           CompletionStage<Response> request) {
+        CompletableFuture<Response> timed = new CompletableFuture<>();
+
+        request.whenComplete((response, failure) -> {
+            if (failure != null) {
+                timed.completeExceptionally(failure);
+            } else {
+                lease.responded(response.getStatus()); // the status decides whether the host failed
+
+                if (!timed.complete(response)) {
+                    response.close(); // the request timed out so nobody will read the response
                 }
             }
+        });
 
-        } else {
-            LRALogger.logger.warnf(
-                "LRAParticipantRecord.forget() LRA: %s: cannot forget %s: missing forget URI, status: %s",
-                lraId, recoveryURI, status);
+        return timed.orTimeout(PARTICIPANT_TIMEOUT, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Wait for the outcome of a participant request on behalf of a caller that cannot continue without it.
+     * Every stage handles its own failures so the wait is bounded by the participant timeout.
+     */
+    private static <T> T await(CompletionStage<T> stage) {
+        try {
+            return stage.toCompletableFuture().join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
         }
+    }
 
-        return true;
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
     }
 
     private boolean isCompelete() {
@@ -855,16 +1028,20 @@ public class LRAParticipantRecord extends AbstractRecord implements Comparable<A
     public boolean save_state(OutputObjectState os, int t) {
         if (super.save_state(os, t)) {
             try {
-                packURI(os, lraId);
-                packURI(os, compensateURI);
-                packURI(os, recoveryURI);
-                packURI(os, completeURI);
-                packURI(os, afterURI);
-                packURI(os, statusURI);
-                packURI(os, forgetURI);
-                packStatus(os);
-                os.packString(participantPath);
-                os.packString(compensatorData);
+                if (StateFormat.isCompact()) {
+                    saveCompactState(os);
+                } else {
+                    packURI(os, lraId);
+                    packURI(os, compensateURI);
+                    packURI(os, recoveryURI);
+                    packURI(os, completeURI);
+                    packURI(os, afterURI);
+                    packURI(os, statusURI);
+                    packURI(os, forgetURI);
+                    packStatus(os);
+                    os.packString(participantPath);
+                    os.packString(compensatorData);
+                }
             } catch (IOException e) {
                 LRALogger.logger.warn(LRALogger.i18nLogger.warn_saveState(e.getMessage()));
 
@@ -883,16 +1060,24 @@ public class LRAParticipantRecord extends AbstractRecord implements Comparable<A
     public boolean restore_state(InputObjectState os, int t) {
         if (super.restore_state(os, t)) {
             try {
-                lraId = unpackURI(os);
-                compensateURI = unpackURI(os);
-                recoveryURI = unpackURI(os);
-                completeURI = unpackURI(os);
-                afterURI = unpackURI(os);
-                statusURI = unpackURI(os);
-                forgetURI = unpackURI(os);
-                unpackStatus(os);
-                participantPath = os.unpackString();
-                compensatorData = os.unpackString();
+                // a legacy record starts with the id of the LRA and a compact one has its header in the same place
+                String first = os.unpackBoolean() ? os.unpackString() : null;
+
+                if (StateFormat.unpackParticipantHeader(os, first)) {
+                    restoreCompactState(os);
+                } else {
+                    lraId = first != null ? new URI(first) : null;
+                    compensateURI = unpackURI(os);
+                    recoveryURI = unpackURI(os);
+                    completeURI = unpackURI(os);
+                    afterURI = unpackURI(os);
+                    statusURI = unpackURI(os);
+                    forgetURI = unpackURI(os);
+                    unpackStatus(os);
+                    participantPath = os.unpackString();
+                    compensatorData = os.unpackString();
+                }
+
                 accepted = status == ParticipantStatus.Completing || status == ParticipantStatus.Compensating;
             } catch (IOException | URISyntaxException e) {
                 LRALogger.i18nLogger.warn_restoreState(e.getMessage());
@@ -907,6 +1092,42 @@ public class LRAParticipantRecord extends AbstractRecord implements Comparable<A
         return true;
     }
 
+    // the endpoints usually share the same prefix so they are written using a prefix dictionary (see StateFormat)
+    private void saveCompactState(OutputObjectState os) throws IOException {
+        StateFormat.Encoder encoder = new StateFormat.Encoder(os);
+
+        StateFormat.packParticipantHeader(os);
+        encoder.pack(lraId);
+        encoder.pack(compensateURI);
+        encoder.pack(recoveryURI);
+        encoder.pack(completeURI);
+        encoder.pack(afterURI);
+        encoder.pack(statusURI);
+        encoder.pack(forgetURI);
+        encoder.pack(participantPath);
+        encoder.pack(status == null ? null : status.name());
+        os.packString(compensatorData);
+    }
+
+    private void restoreCompactState(InputObjectState os) throws IOException, URISyntaxException {
+        StateFormat.Decoder decoder = new StateFormat.Decoder(os);
+
+        lraId = toURI(decoder.unpack());
+        compensateURI = toURI(decoder.unpack());
+        recoveryURI = toURI(decoder.unpack());
+        completeURI = toURI(decoder.unpack());
+        afterURI = toURI(decoder.unpack());
+        statusURI = toURI(decoder.unpack());
+        forgetURI = toURI(decoder.unpack());
+        participantPath = decoder.unpack();
+        status = StateFormat.toEnum(ParticipantStatus.class, decoder.unpack());
+        compensatorData = os.unpackString();
+    }
+
+    private static URI toURI(String uri) throws URISyntaxException {
+        return uri == null ? null : new URI(uri);
+    }
+
     private void packStatus(OutputObjectState os) throws IOException {
         if (status == null) {
             os.packBoolean(false);
@@ -917,7 +1138,7 @@ public class LRAParticipantRecord extends AbstractRecord implements Comparable<A
     }
 
     private void unpackStatus(InputObjectState os) throws IOException {
-        status = os.unpackBoolean() ? ParticipantStatus.values()[os.unpackInt()] : null;
+        status = os.unpackBoolean() ? StateFormat.toEnum(ParticipantStatus.class, os.unpackInt()) : null;
     }
 
     private void packURI(OutputObjectState os, URI url) throws IOException {
@@ -21,6 +21,7 @@ import io.narayana.lra.LRAConstants;
 import io.narayana.lra.LRAData;
 import io.narayana.lra.logging.LRALogger;
 import io.narayana.lra.coordinator.domain.service.LRAService;
+import io.narayana.lra.coordinator.internal.TimingWheel;
 
 import org.eclipse.microprofile.lra.annotation.LRAStatus;
 
@@ -39,20 +40,19 @@ import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.RejectedExecutionException;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.locks.ReentrantLock;
 
 import static jakarta.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR;
 
 public class LongRunningAction extends BasicAction {
     private static final String LRA_TYPE = "/StateManager/BasicAction/LongRunningAction";
-    private static final ScheduledExecutorService scheduler = new ScheduledThreadPoolExecutor(10);
     public static final String DEACTIVATE_REASON = "deactivate failed";
+    private static final long NO_TIME = Long.MIN_VALUE; // how the compact format records a missing start or finish time
     private URI id;
     private URI parentId;
     private String clientId;
@@ -60,8 +60,15 @@ public class LongRunningAction extends BasicAction {
     private LRAStatus status;
     private LocalDateTime startTime;
     private LocalDateTime finishTime;
-    private ScheduledFuture<?> scheduledAbort;
+    private TimingWheel.Timeout scheduledAbort;
     private final LRAService lraService;
+    // indexes of the participant records, they are only used whilst the LRA is active (see participantIndexUsable)
+    private Map<URI, LRAParticipantRecord> participantsByRecoveryUrl;
+    private Map<String, LRAParticipantRecord> participantsByCompensator;
+    // the participant log entries written since the last snapshot (see ParticipantLog)
+    private final List<Uid> logEntries = new ArrayList<>();
+    private long logSequence; // the sequence number of the last participant log entry
+    private boolean snapshotRequired = true; // whether the next save must write the full record
     LRAParentAbstractRecord par;
 
     public LongRunningAction(LRAService lraService, String baseUrl, LongRunningAction parent, String clientId) throws URISyntaxException {
@@ -135,13 +142,67 @@ public class LongRunningAction extends BasicAction {
                 getHttpStatus());
     }
 
+    /**
+     * Write the state of the LRA to the object store.
+     *
+     * @return true if the state was written
+     */
+    @Override
+    public boolean deactivate() {
+        if (!super.deactivate()) {
+            return false;
+        }
+
+        // the record includes every participant so the participant log entries are no longer needed
+        snapshotRequired = false;
+
+        if (!logEntries.isEmpty()) {
+            ParticipantLog.remove(getStore(), logEntries);
+            logEntries.clear();
+        }
+
+        return true;
+    }
+
+    /*
+     * In incremental mode persist a participant that has just been enlisted or updated by appending an entry to
+     * the participant log. Returns false if the caller needs to write the full record instead (the mode is off,
+     * it is time to compact the log or the entry could not be written).
+     */
+    private boolean logParticipant(LRAParticipantRecord participant) {
+        if (!ParticipantLog.isIncremental() || snapshotRequired
+                || logEntries.size() >= ParticipantLog.compactionThreshold()) {
+            return false;
+        }
+
+        Uid entry = ParticipantLog.append(getStore(), get_uid(), logSequence + 1, finishTime, participant);
+
+        if (entry == null) {
+            return false;
+        }
+
+        logSequence += 1;
+        logEntries.add(entry);
+
+        return true;
+    }
+
     public boolean save_state(OutputObjectState os, int ot) {
+        boolean compact = StateFormat.isCompact();
+
         if (!super.save_state(os, ot)
+                || (compact && !packFormat(os))
                 || !save_list(os, ot, pendingList)) { // other lists are maintained in BasicAction
             return false;
         }
 
         try {
+            if (compact) {
+                saveCompactState(os);
+
+                return true;
+            }
+
             os.packString(id == null ? null : id.toString());
             os.packString(parentId == null ? null : parentId.toString());
             os.packString(clientId);
@@ -161,6 +222,7 @@ public class LongRunningAction extends BasicAction {
             }
 
             os.packString(status.name());
+            os.packLong(logSequence);
         } catch (IOException e) {
             LRALogger.logger.warn(LRALogger.i18nLogger.warn_saveState(e.getMessage()));
             return false;
@@ -173,6 +235,34 @@ public class LongRunningAction extends BasicAction {
         return true;
     }
 
+    // the compact format is marked before the pending list, a legacy record has a record type there
+    private boolean packFormat(OutputObjectState os) {
+        try {
+            StateFormat.packLRAHeader(os);
+
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // the ids of the LRA and of its parent usually share a prefix so they are written using a prefix dictionary
+    private void saveCompactState(OutputObjectState os) throws IOException {
+        StateFormat.Encoder encoder = new StateFormat.Encoder(os);
+
+        encoder.pack(id);
+        encoder.pack(parentId);
+        encoder.pack(clientId);
+        os.packLong(startTime == null ? NO_TIME : startTime.toInstant(ZoneOffset.UTC).toEpochMilli());
+        os.packLong(finishTime == null ? NO_TIME : finishTime.toInstant(ZoneOffset.UTC).toEpochMilli());
+        encoder.pack(status.name());
+        os.packLong(logSequence);
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return millis == NO_TIME ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+
     private boolean save_list(OutputObjectState os, int ot, RecordList list) {
         if (list != null && list.size() > 0) {
             AbstractRecord first, temp;
@@ -214,12 +304,13 @@ public class LongRunningAction extends BasicAction {
         return true;
     }
 
-    private boolean restore_list(InputObjectState os, int ot, RecordList list) {
+    // the type of the first record has already been read so that the format of the record could be checked
+    private boolean restore_list(InputObjectState os, int ot, RecordList list, int first_type) {
 
-        int record_type = RecordType.NONE_RECORD;
+        int record_type = first_type;
 
         try {
-            while ((record_type = os.unpackInt()) != RecordType.NONE_RECORD) {
+            for (; record_type != RecordType.NONE_RECORD; record_type = os.unpackInt()) {
                 AbstractRecord record = AbstractRecord.create(record_type);
 
                 if (record == null || !record.restore_state(os, ot) || !list.insert(record)) {
@@ -243,9 +334,25 @@ public class LongRunningAction extends BasicAction {
     }
 
     public boolean restore_state(InputObjectState os, int ot) {
+        clearParticipantIndex(); // the record lists are about to be replaced
+
+        boolean compact;
+
+        try {
+            if (!super.restore_state(os, ot)) {
+                return false;
+            }
+
+            int first = os.unpackInt();
+
+            compact = StateFormat.unpackLRAHeader(os, first);
+
+            if (!restore_list(os, ot, pendingList, compact ? os.unpackInt() : first)) { // other lists are maintained in BasicAction
+                return false;
+            }
+        } catch (IOException e) {
+            LRALogger.i18nLogger.warn_restoreState(e.getMessage());
 
-        if (!super.restore_state(os, ot)
-                || !restore_list(os, ot, pendingList)) { // other lists are maintained in BasicAction
             return false;
         }
 
@@ -274,9 +381,10 @@ public class LongRunningAction extends BasicAction {
         }
 
         try {
-            String s = os.unpackString();
+            StateFormat.Decoder decoder = compact ? new StateFormat.Decoder(os) : null;
+            String s = compact ? decoder.unpack() : os.unpackString();
             id = s == null ? null : new URI(s);
-            s = os.unpackString();
+            s = compact ? decoder.unpack() : os.unpackString();
             if (s == null) {
                 parentId = null;
             } else {
@@ -300,10 +408,29 @@ public class LongRunningAction extends BasicAction {
                     }
                 }
             }
-            clientId = os.unpackString();
-            startTime = os.unpackBoolean() ? LocalDateTime.ofInstant(Instant.ofEpochMilli(os.unpackLong()), ZoneOffset.UTC) : null;
-            finishTime = os.unpackBoolean() ? LocalDateTime.ofInstant(Instant.ofEpochMilli(os.unpackLong()), ZoneOffset.UTC) : null;
-            status = LRAStatus.valueOf(os.unpackString());
+            if (compact) {
+                clientId = decoder.unpack();
+                startTime = toLocalDateTime(os.unpackLong());
+                finishTime = toLocalDateTime(os.unpackLong());
+                status = StateFormat.toEnum(LRAStatus.class, decoder.unpack());
+
+                if (status == null) {
+                    throw new IOException("missing LRA status");
+                }
+
+                logSequence = os.unpackLong();
+            } else {
+                clientId = os.unpackString();
+                startTime = os.unpackBoolean() ? LocalDateTime.ofInstant(Instant.ofEpochMilli(os.unpackLong()), ZoneOffset.UTC) : null;
+                finishTime = os.unpackBoolean() ? LocalDateTime.ofInstant(Instant.ofEpochMilli(os.unpackLong()), ZoneOffset.UTC) : null;
+                status = LRAStatus.valueOf(os.unpackString());
+                logSequence = unpackLogSequence(os);
+            }
+            snapshotRequired = false;
+
+            if (status == LRAStatus.Active && !replayParticipantLog()) {
+                return false;
+            }
 
             /*
              * If the time limit has already been reached then the difference between now and the scheduled
@@ -374,6 +501,52 @@ public class LongRunningAction extends BasicAction {
         return result;
     }
 
+    private long unpackLogSequence(InputObjectState os) {
+        try {
+            return os.unpackLong();
+        } catch (IOException e) {
+            return 0L; // the record was written before the participant log was introduced
+        }
+    }
+
+    // apply the participant log entries that were written after the snapshot that has just been restored
+    private boolean replayParticipantLog() {
+        logEntries.clear();
+
+        for (ParticipantLog.Entry entry : ParticipantLog.read(get_uid())) {
+            logEntries.add(entry.getUid()); // remember it so that it is removed by the next snapshot
+
+            if (entry.getSequence() <= logSequence) {
+                continue; // the snapshot already includes it
+            }
+
+            LRAParticipantRecord participant = entry.getParticipant();
+
+            participant.setLRAService(lraService);
+            participant.setLRA(this);
+
+            // an entry for a participant that is already present is an update so replace the earlier version
+            for (AbstractRecord r = pendingList.peekFront(); r != null; r = pendingList.peekNext(r)) {
+                if (r.order().equals(participant.order())) {
+                    pendingList.remove(r);
+                    break;
+                }
+            }
+
+            if (!pendingList.insert(participant)) {
+                return false;
+            }
+
+            if (entry.getFinishTime() != null) {
+                finishTime = entry.getFinishTime();
+            }
+
+            logSequence = entry.getSequence();
+        }
+
+        return true;
+    }
+
     public static String getType() {
         return LRA_TYPE;
     }
@@ -390,6 +563,13 @@ public class LongRunningAction extends BasicAction {
         return clientId;
     }
 
+    /**
+     * @return the time that the LRA started, in milliseconds since the epoch
+     */
+    public long getStartTimeMillis() {
+        return startTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
     protected LRAService getLraService() {
         return lraService;
     }
@@ -507,7 +687,7 @@ public class LongRunningAction extends BasicAction {
         }
 
         if (scheduledAbort != null) {
-            scheduledAbort.cancel(false);
+            scheduledAbort.cancel();
             scheduledAbort = null;
         }
 
@@ -545,7 +725,12 @@ public class LongRunningAction extends BasicAction {
                     if (LRALogger.logger.isTraceEnabled()) {
                         trace_progress("phase2Commit for nested cancel");
                     }
-                    super.phase2Commit(true);
+                    List<LRAParticipantRecord> notified = notifyParticipants(preparedList);
+                    try {
+                        super.phase2Commit(true);
+                    } finally {
+                        clearNotifiedOutcomes(notified);
+                    }
 
                     res = status();
 
@@ -583,17 +768,38 @@ public class LongRunningAction extends BasicAction {
                 if (LRALogger.logger.isTraceEnabled()) {
                     trace_progress("doEnd with cancel");
                 }
-                super.phase2Commit(true);
+                List<LRAParticipantRecord> notified = notifyParticipants(preparedList);
+                try {
+                    super.phase2Commit(true);
+                } finally {
+                    clearNotifiedOutcomes(notified);
+                }
                 res = super.status();
             } else {
                 // participants should be called in the opposite order from which they joined
                 pendingList = invert(pendingList);
+                preparedList = new RecordList();
+                failedList = new RecordList();
+                if (heuristicList == null) {
+                    heuristicList = new RecordList();
+                }
+
+                // preparing an LRA participant does not contact it so skip the prepare phase: it would rewrite
+                // the record that was written when the LRA moved to Closing just to record the prepared list
+                preparePendingList();
+
                 // tell each participant that the LRA closed ok
                 updateState(LRAStatus.Closing); // can throw ServiceUnavailableException
                 if (LRALogger.logger.isTraceEnabled()) {
                     trace_progress("doEnd with close");
                 }
-                res = super.End(true);
+                List<LRAParticipantRecord> notified = notifyParticipants(preparedList);
+                try {
+                    super.phase2Commit(true);
+                } finally {
+                    clearNotifiedOutcomes(notified);
+                }
+                res = super.status();
             }
         }
 
@@ -641,6 +847,80 @@ public class LongRunningAction extends BasicAction {
         return res;
     }
 
+    /**
+     * In {@link EndMode#PARALLEL} mode tell the participants on the list to complete or compensate concurrently.
+     * The requests are composed so that they are all in flight together without a thread being held for each
+     * one. Each outcome is remembered by the participant record and is returned when BasicAction subsequently
+     * processes the list, so the record lists end up exactly as they would if the participants had been
+     * called one at a time.
+     *
+     * @param participants the list of records that BasicAction is about to process
+     * @return the participant records that were notified
+     */
+    private List<LRAParticipantRecord> notifyParticipants(RecordList participants) {
+        List<LRAParticipantRecord> records = new ArrayList<>();
+
+        if (participants == null || EndMode.current() != EndMode.PARALLEL) {
+            return records;
+        }
+
+        RecordListIterator i = new RecordListIterator(participants);
+        AbstractRecord r;
+
+        while ((r = i.iterate()) != null) {
+            if (r instanceof LRAParticipantRecord) {
+                records.add((LRAParticipantRecord) r);
+            }
+        }
+
+        if (records.size() < 2) {
+            return new ArrayList<>(); // nothing to be gained from overlapping the requests
+        }
+
+        if (LRALogger.logger.isTraceEnabled()) {
+            trace_progress(String.format("notifying %d participants in parallel", records.size()));
+        }
+
+        CompletableFuture<?>[] notifications = new CompletableFuture<?>[records.size()];
+
+        for (int n = 0; n < notifications.length; n++) {
+            notifications[n] = records.get(n).notifyEndAsync().toCompletableFuture();
+        }
+
+        // wait for every notification (each one is bounded by the participant timeout) since the records
+        // must not be processed by BasicAction whilst the response to a request is still updating them
+        awaitAll(notifications, "Parallel participant notification");
+
+        return records;
+    }
+
+    private void clearNotifiedOutcomes(List<LRAParticipantRecord> records) {
+        records.forEach(LRAParticipantRecord::clearNotifiedOutcome);
+    }
+
+    private void awaitAll(CompletableFuture<?>[] stages, String what) {
+        boolean interrupted = false;
+
+        while (true) {
+            try {
+                CompletableFuture.allOf(stages).get();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            } catch (ExecutionException e) {
+                // a record that did not remember an outcome will be called again during the list walk
+                if (LRALogger.logger.isDebugEnabled()) {
+                    LRALogger.logger.debugf(e.getCause(), "%s for LRA %s failed", what, id);
+                }
+                break;
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     protected void runPostLRAActions() {
         // if there are no more heuristic outcomes then update the status of the LRA
         endStateCheck();
@@ -669,7 +949,12 @@ public class LongRunningAction extends BasicAction {
         if (status != nextState) {
             status = nextState; // we trust that nextState is reachable from the current one
 
-            if (save && (pendingList != null && pendingList.size() != 0)) {
+            if (nextState != LRAStatus.Active) {
+                // the records are about to be moved between the lists by the end or recovery processing
+                clearParticipantIndex();
+            }
+
+            if (save && ((pendingList != null && pendingList.size() != 0) || !logEntries.isEmpty())) {
                 if (!deactivate()) {
                     throw new ServiceUnavailableException(LRALogger.i18nLogger.warn_saveState(DEACTIVATE_REASON));
                 }
@@ -698,6 +983,8 @@ public class LongRunningAction extends BasicAction {
     protected void moveTo(RecordList fromList, RecordList toList, boolean invert) {
         AbstractRecord record;
 
+        clearParticipantIndex();
+
         if (fromList != null) {
             while ((record = fromList.getFront()) != null) {
                 if (invert) {
@@ -709,6 +996,19 @@ public class LongRunningAction extends BasicAction {
         }
     }
 
+    // move the pending records onto the prepared list in the order that BasicAction.prepare would have left them
+    private void preparePendingList() {
+        AbstractRecord record;
+
+        clearParticipantIndex();
+
+        if (pendingList != null) {
+            while ((record = pendingList.getFront()) != null) {
+                preparedList.insert(record);
+            }
+        }
+    }
+
     protected RecordList invert(RecordList list) {
         RecordList inverted = new RecordList();
         AbstractRecord record;
@@ -797,7 +1097,7 @@ public class LongRunningAction extends BasicAction {
                         compensatorData, version);
                 if (participant != null) {
                     // need to remember that there is a new participant
-                    if (deactivate()) { // if it fails the superclass will have logged a warning
+                    if (logParticipant(participant) || deactivate()) { // if it fails the superclass will have logged a warning
                         savedIntentionList = true; // need this clean up if the LRA times out
                     } else {
                         throw new ServiceUnavailableException(LRALogger.i18nLogger.warn_saveState(DEACTIVATE_REASON));
@@ -852,6 +1152,10 @@ public class LongRunningAction extends BasicAction {
         }
 
         if (add(p) != AddOutcome.AR_REJECTED) {
+            if (participantsByRecoveryUrl != null) {
+                indexParticipant(p);
+            }
+
             if (setTimeLimit(timeLimit, true) != Response.Status.OK.getStatusCode()) {
                 // there is no remove(p) so just issue a warning - but note that the caller will also try to
                 // save the state so the time limit will be written then or else it will report it using
@@ -864,6 +1168,7 @@ public class LongRunningAction extends BasicAction {
         } else if (isRecovering() && p.getCompensator() == null && p.getEndNotificationUri() != null) {
             // the participant is an AfterLRA listener so manually add it to heuristic list
             heuristicList.putRear(p);
+            clearParticipantIndex();
             updateState();
 
             if (LRALogger.logger.isTraceEnabled()) {
@@ -887,7 +1192,13 @@ public class LongRunningAction extends BasicAction {
     }
 
     public boolean forgetParticipant(String participantUrl) {
-        return findLRAParticipant(participantUrl, true) != null;
+        if (findLRAParticipant(participantUrl, true) == null) {
+            return false;
+        }
+
+        snapshotRequired = true; // a participant log entry can only add or update a participant
+
+        return true;
     }
 
     public boolean forgetAllParticipants() {
@@ -926,6 +1237,10 @@ public class LongRunningAction extends BasicAction {
         try {
             URI recoveryUrl = new URI(LRAParticipantRecord.cannonicalForm(participantUrl));
 
+            if (participantIndexUsable()) {
+                return indexedParticipant(participantsByRecoveryUrl.get(recoveryUrl), remove);
+            }
+
             rec = findLRAParticipantByRecoveryUrl(recoveryUrl, remove, pendingList, preparedList, heuristicList, failedList);
 
         } catch (URISyntaxException ignore) {
@@ -938,12 +1253,82 @@ public class LongRunningAction extends BasicAction {
 
                 return null;
             }
+
+            if (participantIndexUsable()) {
+                return indexedParticipant(participantsByCompensator.get(pUrl), remove);
+            }
+
             rec = findLRAParticipant(pUrl, remove, pendingList, preparedList, heuristicList, failedList);
         }
 
         return rec;
     }
 
+    /*
+     * Looking up a participant by scanning the record lists is linear in the number of participants which is
+     * expensive when an LRA has hundreds of them (every join checks whether the participant is already enlisted).
+     * Whilst the LRA is active the records are only added and removed by this class so the lookups are answered
+     * from hash indexes instead. The indexes are built from the lists on first use (in the same order that the
+     * scan visits them so the same record is found) and are dropped as soon as the LRA starts to end, or when the
+     * lists are restored or rearranged, since BasicAction then moves the records between the lists.
+     */
+    private boolean participantIndexUsable() {
+        if (status != LRAStatus.Active || getSize(heuristicList) != 0) {
+            return false;
+        }
+
+        if (participantsByRecoveryUrl == null) {
+            participantsByRecoveryUrl = new HashMap<>();
+            participantsByCompensator = new HashMap<>();
+
+            for (RecordList list : new RecordList[] {pendingList, preparedList, heuristicList, failedList}) {
+                if (list != null) {
+                    RecordListIterator i = new RecordListIterator(list);
+                    AbstractRecord r;
+
+                    while ((r = i.iterate()) != null) {
+                        if (r instanceof LRAParticipantRecord) {
+                            indexParticipant((LRAParticipantRecord) r);
+                        }
+                    }
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private void indexParticipant(LRAParticipantRecord rec) {
+        if (rec.getRecoveryURI() != null) {
+            participantsByRecoveryUrl.putIfAbsent(rec.getRecoveryURI(), rec);
+        }
+
+        if (rec.getCompensator() != null) {
+            participantsByCompensator.putIfAbsent(rec.getCompensator(), rec);
+        }
+    }
+
+    private LRAParticipantRecord indexedParticipant(LRAParticipantRecord rec, boolean remove) {
+        if (rec != null && remove) {
+            participantsByRecoveryUrl.remove(rec.getRecoveryURI(), rec);
+            participantsByCompensator.remove(rec.getCompensator(), rec);
+
+            // RecordList is a linked list so removal still walks it, but only to compare references
+            for (RecordList list : new RecordList[] {pendingList, preparedList, heuristicList, failedList}) {
+                if (list != null && list.remove(rec)) {
+                    break;
+                }
+            }
+        }
+
+        return rec;
+    }
+
+    private void clearParticipantIndex() {
+        participantsByRecoveryUrl = null;
+        participantsByCompensator = null;
+    }
+
     private LRAParticipantRecord findLRAParticipant(String participantUrl, boolean remove, RecordList...lists) {
         for (RecordList list : lists) {
             if (list != null) {
@@ -1135,7 +1520,7 @@ public class LongRunningAction extends BasicAction {
                 if (LRALogger.logger.isTraceEnabled()) {
                     trace_progress("scheduleCancellation: earlier than previous timer");
                 }
-                scheduledAbort.cancel(false);
+                scheduledAbort.cancel();
             }
         } else {
             // if timeLimit is negative the abort will be scheduled immediately
@@ -1146,25 +1531,11 @@ public class LongRunningAction extends BasicAction {
             trace_progress("scheduleCancellation update finishTime");
         }
 
-        try {
-            scheduledAbort = scheduler.schedule(runnable, timeLimit, TimeUnit.MILLISECONDS);
-            if (LRALogger.logger.isTraceEnabled()) {
-                trace_progress("scheduleCancellation accepted");
-            }
-        } catch (RejectedExecutionException executionException) {
-            if (LRALogger.logger.isTraceEnabled()) {
-                trace_progress("scheduleCancellation rejected");
-            }
-            LRALogger.logger.warnf(
-                    "The LRA transaction with ID %s has not correctly scheduled the task to cancel itself." +
-                            "A recovery cycle will eventually cancel this LRA.\n" +
-                            "Exception message: %s",
-                    this.getId(),
-                    executionException.getMessage());
+        // the timer runs the cancellation on one of its workers (or on a virtual thread in virtual thread mode)
+        scheduledAbort = TimingWheel.schedule(runnable, timeLimit);
 
-            // This exception does not need to be handled as the periodic recovery
-            // will eventually discover that this LRA is eligible for cancellation.
-            updateState(LRAStatus.Cancelling, save);
+        if (LRALogger.logger.isTraceEnabled()) {
+            trace_progress("scheduleCancellation accepted");
         }
 
         return Response.Status.OK.getStatusCode();
@@ -1206,10 +1577,11 @@ public class LongRunningAction extends BasicAction {
 
         if (lraRecord != null) {
             try {
+                clearParticipantIndex(); // the record is indexed by the URIs that are being replaced
                 lraRecord.setRecoveryURI(recoveryUri);
                 lraRecord.updateCallbacks(linkHeader);
 
-                if (!deactivate()) {
+                if (!logParticipant(lraRecord) && !deactivate()) {
                     LRALogger.logger.warn(LRALogger.i18nLogger.warn_saveState(DEACTIVATE_REASON));
 
                     return false;
@@ -1246,15 +1618,18 @@ public class LongRunningAction extends BasicAction {
     void forget() {
         if (heuristicList != null && heuristicList.size() != 0) {
             RecordListIterator i = new RecordListIterator(heuristicList);
+            List<CompletableFuture<Boolean>> forgets = new ArrayList<>();
             AbstractRecord r;
 
             while ((r = i.iterate()) != null) {
                 if (r instanceof LRAParticipantRecord) {
                     LRAParticipantRecord rec = (LRAParticipantRecord) r;
 
-                    rec.forget();
+                    forgets.add(rec.forgetAsync().toCompletableFuture());
                 }
             }
+
+            awaitAll(forgets.toArray(new CompletableFuture<?>[0]), "Forget");
         }
 
         if (LRALogger.logger.isTraceEnabled()) {
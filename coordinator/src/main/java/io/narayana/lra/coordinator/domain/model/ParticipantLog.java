@@ -0,0 +1,321 @@
+/*
+   Copyright The Narayana Authors
+   SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.narayana.lra.coordinator.domain.model;
+
+import com.arjuna.ats.arjuna.ObjectType;
+import com.arjuna.ats.arjuna.common.Uid;
+import com.arjuna.ats.arjuna.coordinator.AbstractRecord;
+import com.arjuna.ats.arjuna.exceptions.ObjectStoreException;
+import com.arjuna.ats.arjuna.objectstore.ParticipantStore;
+import com.arjuna.ats.arjuna.objectstore.RecoveryStore;
+import com.arjuna.ats.arjuna.objectstore.StateStatus;
+import com.arjuna.ats.arjuna.objectstore.StoreManager;
+import com.arjuna.ats.arjuna.state.InputObjectState;
+import com.arjuna.ats.arjuna.state.OutputObjectState;
+import com.arjuna.ats.internal.arjuna.common.UidHelper;
+import io.narayana.lra.logging.LRALogger;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Incremental persistence of the participants of active LRAs.
+ * <p>
+ * Normally every change to an LRA rewrites its whole log record, so enlisting the Nth participant writes all N
+ * participant records. If the system property {@value #INCREMENTAL_PROPERTY} is true then enlisting a participant
+ * (or updating its recovery URL) instead appends a small entry to the participant log holding just that participant
+ * (and the time limit of the LRA, which a participant can shorten). The full record (the snapshot) is still written
+ * when the LRA begins, when it stops being active (the end protocol of {@link com.arjuna.ats.arjuna.coordinator.BasicAction}
+ * rewrites the full record from then on), when a participant leaves and when the number of entries reaches
+ * {@value #COMPACTION_THRESHOLD_PROPERTY} (compaction). Once a snapshot has been written the entries that it
+ * includes are removed.
+ * <p>
+ * Each entry carries a sequence number and every snapshot records the sequence number of the last entry that it
+ * includes. When an active LRA is restored the entries with a later sequence number are replayed on top of the
+ * snapshot, so entries that were not removed (because of a crash or a store failure) are ignored. Every entry is
+ * stored under the type {@value #ENTRY_TYPE} and starts with the uid of its LRA. The LRA of each entry is remembered
+ * once it is known (entries never change), so restoring an LRA only reads its own entries and the entries that
+ * have not been seen before, and the store only ever holds the entries of LRAs that are still active. Entries
+ * whose LRA no longer has a log record are removed during recovery. Once the mode is off and a recovery pass has
+ * found no entries, neither restoring LRAs nor recovery look for them.
+ */
+public final class ParticipantLog {
+    public static final String INCREMENTAL_PROPERTY = "lra.coordinator.log.incremental";
+    public static final String COMPACTION_THRESHOLD_PROPERTY = "lra.coordinator.log.compaction.threshold";
+    public static final String ENTRY_TYPE = "/LRA/ParticipantLogEntry";
+
+    private static final int DEFAULT_COMPACTION_THRESHOLD = 64;
+
+    // whether the last recovery pass found participant log entries, null until a pass has run
+    private static volatile Boolean entriesFound;
+    // the LRA of each entry in the store that has been written or read
+    private static final Map<Uid, Uid> entryOwners = new ConcurrentHashMap<>();
+
+    private ParticipantLog() {
+    }
+
+    static boolean isIncremental() {
+        return Boolean.getBoolean(INCREMENTAL_PROPERTY);
+    }
+
+    static int compactionThreshold() {
+        return Integer.getInteger(COMPACTION_THRESHOLD_PROPERTY, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    // entries are only written in incremental mode, but the mode may have been on before the coordinator restarted
+    private static boolean mayHaveEntries() {
+        return isIncremental() || !Boolean.FALSE.equals(entriesFound);
+    }
+
+    /**
+     * Write a participant log entry.
+     *
+     * @param store the store that holds the log of the LRA
+     * @param lraUid the LRA that the participant belongs to
+     * @param sequence the position of the entry in the log of the LRA
+     * @param finishTime the time at which the LRA will be cancelled, or null if it does not have a time limit
+     * @param participant the participant that was enlisted or updated
+     * @return the uid of the new entry, or null if it could not be written
+     */
+    static Uid append(ParticipantStore store, Uid lraUid, long sequence, LocalDateTime finishTime,
+                      LRAParticipantRecord participant) {
+        Uid entryUid = new Uid();
+        OutputObjectState os = new OutputObjectState();
+
+        try {
+            UidHelper.packInto(lraUid, os);
+            os.packLong(sequence);
+
+            if (finishTime == null) {
+                os.packBoolean(false);
+            } else {
+                os.packBoolean(true);
+                os.packLong(finishTime.toInstant(ZoneOffset.UTC).toEpochMilli());
+            }
+
+            os.packInt(participant.typeIs());
+
+            if (!participant.save_state(os, ObjectType.ANDPERSISTENT)) {
+                return null;
+            }
+
+            if (!store.write_committed(entryUid, ENTRY_TYPE, os)) {
+                return null;
+            }
+
+            entryOwners.put(entryUid, lraUid);
+
+            return entryUid;
+        } catch (IOException | ObjectStoreException e) {
+            LRALogger.logger.warn(LRALogger.i18nLogger.warn_saveState(e.getMessage()));
+            return null;
+        }
+    }
+
+    /**
+     * Remove participant log entries, failures are logged and are otherwise harmless since the entries
+     * are ignored once the snapshot that includes them has been written.
+     *
+     * @param store the store that holds the entries
+     * @param entries the uids of the entries to remove
+     */
+    static void remove(ParticipantStore store, Collection<Uid> entries) {
+        for (Uid entry : entries) {
+            try {
+                store.remove_committed(entry, ENTRY_TYPE);
+                entryOwners.remove(entry);
+            } catch (ObjectStoreException e) {
+                if (LRALogger.logger.isDebugEnabled()) {
+                    LRALogger.logger.debugf(e, "Unable to remove participant log entry %s", entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Read the participant log entries of an LRA.
+     *
+     * @param lraUid the LRA whose entries are required
+     * @return the entries in the order that they were written
+     */
+    static List<Entry> read(Uid lraUid) {
+        if (!mayHaveEntries()) {
+            return Collections.emptyList();
+        }
+
+        RecoveryStore store = StoreManager.getRecoveryStore();
+        List<Entry> entries = new ArrayList<>();
+
+        try {
+            for (Uid uid : listEntries(store)) {
+                Uid owner = entryOwners.get(uid);
+
+                if (owner != null && owner.notEquals(lraUid)) {
+                    continue; // the entry belongs to another LRA
+                }
+
+                InputObjectState state = store.read_committed(uid, ENTRY_TYPE);
+                Entry entry = state == null ? null : Entry.unpack(state);
+
+                if (entry != null) {
+                    entryOwners.put(uid, entry.getLraUid());
+
+                    if (entry.getLraUid().equals(lraUid)) {
+                        entries.add(entry);
+                    }
+                }
+            }
+        } catch (IOException | ObjectStoreException e) {
+            LRALogger.logger.infof("Unable to read the participant log of LRA %s: %s", lraUid, e.getMessage());
+        }
+
+        entries.sort(Comparator.comparingLong(Entry::getSequence));
+
+        return entries;
+    }
+
+    /**
+     * Called by recovery before it restores LRAs to remove the entries whose LRA no longer has a log record.
+     * Only the uid of the LRA is read from entries that have not been seen before, and the log record of
+     * each LRA is only looked up once.
+     *
+     * @param store the recovery store
+     */
+    public static void removeOrphanedEntries(RecoveryStore store) {
+        if (!mayHaveEntries()) {
+            return;
+        }
+
+        Map<Uid, Boolean> active = new HashMap<>(); // whether each LRA still has a log record
+
+        try {
+            Collection<Uid> entries = listEntries(store);
+
+            entryOwners.keySet().retainAll(entries);
+
+            for (Uid entry : entries) {
+                Uid lraUid = readOwner(store, entry);
+
+                if (lraUid != null && !active.containsKey(lraUid)) {
+                    active.put(lraUid, store.currentState(lraUid, LongRunningAction.getType()) != StateStatus.OS_UNKNOWN);
+                }
+
+                // an entry without an LRA can never be replayed
+                if (lraUid == null || !active.get(lraUid)) {
+                    store.remove_committed(entry, ENTRY_TYPE);
+                    entryOwners.remove(entry);
+                }
+            }
+        } catch (IOException | ObjectStoreException e) {
+            LRALogger.logger.infof("Unable to remove orphaned participant log entries: %s", e.getMessage());
+            return; // look again next time
+        }
+
+        entriesFound = active.containsValue(true);
+    }
+
+    // the LRA of an entry, or null if the entry cannot be read
+    private static Uid readOwner(RecoveryStore store, Uid entry) throws ObjectStoreException {
+        Uid owner = entryOwners.get(entry);
+
+        if (owner == null) {
+            InputObjectState state = store.read_committed(entry, ENTRY_TYPE);
+
+            try {
+                owner = state == null ? null : UidHelper.unpackFrom(state);
+            } catch (IOException e) {
+                return null;
+            }
+
+            if (owner != null && owner.valid()) {
+                entryOwners.put(entry, owner);
+            } else {
+                owner = null;
+            }
+        }
+
+        return owner;
+    }
+
+    private static Collection<Uid> listEntries(RecoveryStore store) throws IOException, ObjectStoreException {
+        Collection<Uid> entries = new HashSet<>();
+        InputObjectState uids = new InputObjectState();
+
+        if (store.allObjUids(ENTRY_TYPE, uids)) {
+            for (Uid uid = UidHelper.unpackFrom(uids); uid.notEquals(Uid.nullUid()); uid = UidHelper.unpackFrom(uids)) {
+                entries.add(uid);
+            }
+        }
+
+        return entries;
+    }
+
+    static final class Entry {
+        private final Uid uid;
+        private final Uid lraUid;
+        private final long sequence;
+        private final LocalDateTime finishTime;
+        private final LRAParticipantRecord participant;
+
+        private Entry(Uid uid, Uid lraUid, long sequence, LocalDateTime finishTime, LRAParticipantRecord participant) {
+            this.uid = uid;
+            this.lraUid = lraUid;
+            this.sequence = sequence;
+            this.finishTime = finishTime;
+            this.participant = participant;
+        }
+
+        private static Entry unpack(InputObjectState os) {
+            try {
+                Uid lraUid = UidHelper.unpackFrom(os);
+                long sequence = os.unpackLong();
+                LocalDateTime finishTime = os.unpackBoolean()
+                        ? LocalDateTime.ofInstant(Instant.ofEpochMilli(os.unpackLong()), ZoneOffset.UTC)
+                        : null;
+                AbstractRecord record = AbstractRecord.create(os.unpackInt());
+
+                if (record instanceof LRAParticipantRecord && record.restore_state(os, ObjectType.ANDPERSISTENT)) {
+                    return new Entry(os.stateUid(), lraUid, sequence, finishTime, (LRAParticipantRecord) record);
+                }
+            } catch (IOException e) {
+                LRALogger.i18nLogger.warn_restoreState(e.getMessage());
+            }
+
+            return null;
+        }
+
+        Uid getUid() {
+            return uid;
+        }
+
+        Uid getLraUid() {
+            return lraUid;
+        }
+
+        long getSequence() {
+            return sequence;
+        }
+
+        LocalDateTime getFinishTime() {
+            return finishTime;
+        }
+
+        LRAParticipantRecord getParticipant() {
+            return participant;
+        }
+    }
+}
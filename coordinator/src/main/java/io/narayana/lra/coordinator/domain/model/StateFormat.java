@@ -0,0 +1,249 @@
+/*
+   Copyright The Narayana Authors
+   SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.narayana.lra.coordinator.domain.model;
+
+import com.arjuna.ats.arjuna.state.InputObjectState;
+import com.arjuna.ats.arjuna.state.OutputObjectState;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The encoding used for the log records of LRAs and of their participants.
+ * <p>
+ * The legacy format packs every URI as a separate string even though the endpoints of a participant, and the id
+ * of an LRA and of its parent, usually share the same scheme, host and path prefix. The compact format writes
+ * each string as a reference to the earlier string in the same record that shares the longest prefix with it,
+ * followed by the remainder of the string (the earlier strings act as the prefix dictionary). Each record keeps
+ * its own dictionary so that it can be restored on its own. Enum values are written by name.
+ * <p>
+ * A compact record starts with a header, a marker followed by the version of the format, written where a legacy
+ * record has a field of the same type that never holds the marker, so legacy records can still be restored.
+ * In an LRA record the marker is a negative int where a legacy record has the type of its first pending
+ * participant record, and in a participant record it is a string that is not a URI where a legacy record has the
+ * id of its LRA.
+ * <p>
+ * Records are written in the legacy format unless the system property {@value #FORMAT_PROPERTY} is set to
+ * {@code compact}. Only enable the compact format once no coordinator that can only read the legacy format
+ * (an older version during a rolling upgrade, or after a rollback) may need to recover the store. The property
+ * is read every time a record is saved.
+ */
+public final class StateFormat {
+    public static final String FORMAT_PROPERTY = "lra.coordinator.log.format";
+    public static final String LEGACY = "legacy";
+    public static final String COMPACT = "compact";
+
+    static final int LRA_MARKER = -1; // record types are not negative
+    private static final String PARTICIPANT_MARKER = "#LRA participant record#"; // not a valid URI
+    static final int VERSION = 1;
+
+    private static final int NULL_STRING = -1;
+    private static final int LITERAL_STRING = -2;
+    // a shorter shared prefix is not worth the extra int needed to encode its length
+    private static final int MIN_PREFIX_LENGTH = 8;
+
+    private StateFormat() {
+    }
+
+    static boolean isCompact() {
+        return COMPACT.equalsIgnoreCase(System.getProperty(FORMAT_PROPERTY, LEGACY));
+    }
+
+    /**
+     * Write the header of a compact LRA record.
+     *
+     * @param os the state of the LRA
+     * @throws IOException if the header cannot be written
+     */
+    static void packLRAHeader(OutputObjectState os) throws IOException {
+        os.packInt(LRA_MARKER);
+        os.packInt(VERSION);
+    }
+
+    /**
+     * Read the header of an LRA record, if it has one.
+     *
+     * @param os the state of the LRA
+     * @param first the int where a compact record has its marker and a legacy record has a record type
+     * @return true if the record uses the compact format
+     * @throws IOException if the record was written in a version of the compact format that is not known
+     */
+    static boolean unpackLRAHeader(InputObjectState os, int first) throws IOException {
+        if (first != LRA_MARKER) {
+            return false;
+        }
+
+        checkVersion(os.unpackInt());
+
+        return true;
+    }
+
+    /**
+     * Write the header of a compact participant record.
+     *
+     * @param os the state of the participant
+     * @throws IOException if the header cannot be written
+     */
+    static void packParticipantHeader(OutputObjectState os) throws IOException {
+        os.packBoolean(true);
+        os.packString(PARTICIPANT_MARKER);
+        os.packInt(VERSION);
+    }
+
+    /**
+     * Read the header of a participant record, if it has one.
+     *
+     * @param os the state of the participant
+     * @param first the string where a compact record has its marker and a legacy record has the id of its LRA
+     * @return true if the record uses the compact format
+     * @throws IOException if the record was written in a version of the compact format that is not known
+     */
+    static boolean unpackParticipantHeader(InputObjectState os, String first) throws IOException {
+        if (!PARTICIPANT_MARKER.equals(first)) {
+            return false;
+        }
+
+        checkVersion(os.unpackInt());
+
+        return true;
+    }
+
+    private static void checkVersion(int version) throws IOException {
+        if (version != VERSION) {
+            throw new IOException("unsupported LRA record format version " + version);
+        }
+    }
+
+    /**
+     * @param type the enum type
+     * @param name the name of the value, or null
+     * @return the value with the given name, or null if the name is null
+     * @throws IOException if the enum has no value with that name
+     */
+    static <E extends Enum<E>> E toEnum(Class<E> type, String name) throws IOException {
+        try {
+            return name == null ? null : Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(String.format("unknown %s %s", type.getSimpleName(), name));
+        }
+    }
+
+    /**
+     * @param type the enum type
+     * @param ordinal the ordinal of the value, as written in the legacy format
+     * @return the value with the given ordinal
+     * @throws IOException if the enum has no value with that ordinal
+     */
+    static <E extends Enum<E>> E toEnum(Class<E> type, int ordinal) throws IOException {
+        E[] values = type.getEnumConstants();
+
+        if (ordinal < 0 || ordinal >= values.length) {
+            throw new IOException(String.format("unknown %s %d", type.getSimpleName(), ordinal));
+        }
+
+        return values[ordinal];
+    }
+
+    /**
+     * Writes the strings of one record using the strings that it has already written as a prefix dictionary.
+     */
+    static final class Encoder {
+        private final OutputObjectState os;
+        private final List<String> dictionary = new ArrayList<>();
+
+        Encoder(OutputObjectState os) {
+            this.os = os;
+        }
+
+        void pack(Object value) throws IOException {
+            if (value == null) {
+                os.packInt(NULL_STRING);
+
+                return;
+            }
+
+            String s = value instanceof URI ? ((URI) value).toASCIIString() : value.toString();
+            int ref = LITERAL_STRING;
+            int prefixLength = MIN_PREFIX_LENGTH - 1;
+
+            for (int i = 0; i < dictionary.size(); i++) {
+                int length = commonPrefixLength(dictionary.get(i), s);
+
+                if (length > prefixLength) {
+                    ref = i;
+                    prefixLength = length;
+                }
+            }
+
+            os.packInt(ref);
+
+            if (ref == LITERAL_STRING) {
+                os.packString(s);
+            } else {
+                os.packInt(prefixLength);
+                os.packString(s.substring(prefixLength));
+            }
+
+            dictionary.add(s);
+        }
+
+        private static int commonPrefixLength(String a, String b) {
+            int max = Math.min(a.length(), b.length());
+            int i = 0;
+
+            while (i < max && a.charAt(i) == b.charAt(i)) {
+                i++;
+            }
+
+            return i;
+        }
+    }
+
+    /**
+     * Reads the strings written by an {@link Encoder}.
+     */
+    static final class Decoder {
+        private final InputObjectState os;
+        private final List<String> dictionary = new ArrayList<>();
+
+        Decoder(InputObjectState os) {
+            this.os = os;
+        }
+
+        String unpack() throws IOException {
+            int ref = os.unpackInt();
+            String s;
+
+            if (ref == NULL_STRING) {
+                return null;
+            } else if (ref == LITERAL_STRING) {
+                s = os.unpackString();
+            } else if (ref >= 0 && ref < dictionary.size()) {
+                String prefix = dictionary.get(ref);
+                int prefixLength = os.unpackInt();
+                String suffix = os.unpackString();
+
+                if (prefixLength < 0 || prefixLength > prefix.length()) {
+                    throw new IOException("invalid prefix length " + prefixLength);
+                }
+
+                s = suffix == null ? prefix.substring(0, prefixLength) : prefix.substring(0, prefixLength) + suffix;
+            } else {
+                throw new IOException("invalid prefix reference " + ref);
+            }
+
+            if (s == null) {
+                throw new IOException("missing string");
+            }
+
+            dictionary.add(s);
+
+            return s;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+   Copyright The Narayana Authors
+   SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.narayana.lra.coordinator.domain.service;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One lock per LRA. Threads working on different LRAs never contend: looking up (or creating) a lock only
+ * touches the map entry for that LRA and nobody waits for a lock whilst holding anything else.
+ * <p>
+ * Each entry counts the threads that hold or are waiting for its lock and the entry is removed by the
+ * last {@link ReentrantLock#unlock()}. So the map only contains locks that are in use and an entry can never
+ * be dropped whilst another thread still relies on it (which would allow a second thread to create a
+ * fresh lock for the same LRA).
+ */
+final class LRALocks {
+    private final Map<URI, EntryLock> locks = new ConcurrentHashMap<>();
+
+    /**
+     * Lock an LRA, waiting if another thread holds the lock.
+     *
+     * @param lraId the LRA to lock
+     * @return the lock, which must be released by calling {@link ReentrantLock#unlock()} once
+     */
+    ReentrantLock lock(URI lraId) {
+        EntryLock lock = acquire(lraId);
+
+        lock.lock();
+
+        return lock;
+    }
+
+    /**
+     * Lock an LRA if the lock is not held by another thread.
+     *
+     * @param lraId the LRA to lock
+     * @return the lock, which must be released by calling {@link ReentrantLock#unlock()} once, or null
+     * if another thread holds the lock
+     */
+    ReentrantLock tryLock(URI lraId) {
+        EntryLock lock = acquire(lraId);
+
+        if (lock.tryLock()) {
+            return lock;
+        }
+
+        release(lock);
+
+        return null;
+    }
+
+    private EntryLock acquire(URI lraId) {
+        // compute is atomic for a key so the user count does not need any other synchronization
+        return locks.compute(lraId, (id, lock) -> {
+            EntryLock entry = lock == null ? new EntryLock(id) : lock;
+
+            entry.users++;
+
+            return entry;
+        });
+    }
+
+    private void release(EntryLock lock) {
+        locks.computeIfPresent(lock.lraId, (id, entry) -> entry == lock && --entry.users == 0 ? null : entry);
+    }
+
+    private final class EntryLock extends ReentrantLock {
+        private final URI lraId;
+        private int users; // the number of lock and tryLock calls that have not been matched by an unlock
+
+        private EntryLock(URI lraId) {
+            this.lraId = lraId;
+        }
+
+        @Override
+        public void unlock() {
+            super.unlock();
+            release(this);
+        }
+    }
+}
@@ -25,12 +25,17 @@ import jakarta.ws.rs.core.Response;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 import static jakarta.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR;
 import static jakarta.ws.rs.core.Response.Status.NOT_FOUND;
@@ -42,45 +47,50 @@ public class LRAService {
 
     private final Map<URI, LongRunningAction> lras = new ConcurrentHashMap<>();
     private final Map<URI, LongRunningAction> recoveringLRAs = new ConcurrentHashMap<>();
-    private final Map<URI, ReentrantLock> locks = new ConcurrentHashMap<>();
+    // the same LRAs keyed by the string form of their uid, for lookups using a different URI for the coordinator
+    private final Map<String, LongRunningAction> lrasByUid = new ConcurrentHashMap<>();
+    private final Map<String, LongRunningAction> recoveringLRAsByUid = new ConcurrentHashMap<>();
+    private final LRALocks locks = new LRALocks();
     private final Map<LongRunningAction, Map<String, String>> lraParticipants = new ConcurrentHashMap<>();
+    // the compensators in lraParticipants keyed by their recovery id
+    private final Map<String, String> participantsByRecoveryId = new ConcurrentHashMap<>();
     private LRARecoveryModule recoveryModule;
 
     public LongRunningAction getTransaction(URI lraId) throws NotFoundException {
-        if (!lras.containsKey(lraId)) {
-            String uid = LRAConstants.getLRAUid(lraId);
-
-            if (uid == null || uid.isEmpty()) {
-                String errorMsg = LRALogger.i18nLogger.warn_invalid_uri(
-                        String.valueOf(lraId), "LongRunningAction.getTransaction");
-                throw new NotFoundException(errorMsg, // 404
-                        Response.status(NOT_FOUND).entity(errorMsg).build());
-            }
+        LongRunningAction lra = lras.get(lraId);
 
-            // try comparing on uid since different URIs can map to the same resource
-            // (eg localhost versus 127.0.0.1 versus :1 etc)
-            for (LongRunningAction lra : lras.values()) {
-                if (uid.equals(lra.get_uid().fileStringForm())) {
-                    return lra;
-                }
-            }
+        if (lra != null) {
+            return lra;
+        }
 
-            if (!recoveringLRAs.containsKey(lraId)) {
-                for (LongRunningAction lra : recoveringLRAs.values()) {
-                    if (uid.equals(lra.get_uid().fileStringForm())) {
-                        return lra;
-                    }
-                }
+        String uid = LRAConstants.getLRAUid(lraId);
 
-                String errorMsg = "Cannot find transaction id: " + lraId;
-                throw new NotFoundException(errorMsg,
-                        Response.status(NOT_FOUND).entity(errorMsg).build());
+        if (uid == null || uid.isEmpty()) {
+            String errorMsg = LRALogger.i18nLogger.warn_invalid_uri(
+                    String.valueOf(lraId), "LongRunningAction.getTransaction");
+            throw new NotFoundException(errorMsg, // 404
+                    Response.status(NOT_FOUND).entity(errorMsg).build());
+        }
+
+        // try the uid since different URIs can map to the same resource
+        // (eg localhost versus 127.0.0.1 versus :1 etc)
+        lra = lrasByUid.get(uid);
+
+        if (lra == null) {
+            lra = recoveringLRAs.get(lraId);
+
+            if (lra == null) {
+                lra = recoveringLRAsByUid.get(uid);
             }
+        }
 
-            return recoveringLRAs.get(lraId);
+        if (lra == null) {
+            String errorMsg = "Cannot find transaction id: " + lraId;
+            throw new NotFoundException(errorMsg,
+                    Response.status(NOT_FOUND).entity(errorMsg).build());
         }
 
-        return lras.get(lraId);
+        return lra;
     }
 
     public LongRunningAction lookupTransaction(URI lraId) {
@@ -91,23 +101,27 @@ public class LRAService {
         }
     }
 
+    /**
+     * Look up an LRA that is held in memory by this coordinator, without consulting the store
+     *
+     * @param uid the uid of the LRA
+     * @return the LRA or null if this coordinator is not holding it
+     */
+    public LongRunningAction lookupTransaction(Uid uid) {
+        return lrasByUid.get(uid.fileStringForm());
+    }
+
     public LRAData getLRA(URI lraId) {
         LongRunningAction lra = getTransaction(lraId);
         return lra.getLRAData();
     }
 
-    public synchronized ReentrantLock lockTransaction(URI lraId) {
-        ReentrantLock lock = locks.computeIfAbsent(lraId, k -> new ReentrantLock());
-
-        lock.lock();
-
-        return lock;
+    public ReentrantLock lockTransaction(URI lraId) {
+        return locks.lock(lraId);
     }
 
-    public synchronized ReentrantLock tryLockTransaction(URI lraId) {
-        ReentrantLock lock = locks.computeIfAbsent(lraId, k -> new ReentrantLock());
-
-        return lock.tryLock() ? lock : null;
+    public ReentrantLock tryLockTransaction(URI lraId) {
+        return locks.tryLock(lraId);
     }
 
     public List<LRAData> getAll() {
@@ -127,6 +141,53 @@ public class LRAService {
         return allByStatus;
     }
 
+    /**
+     * Select the LRAs (active and recovering) that match a filter. The LRAs are visited lazily as the stream is
+     * consumed so no copy of the collection is made. An LRA that is held both as an active LRA and as a
+     * recovering LRA is only included once.
+     *
+     * @param filter the LRAs to include
+     * @return the matching LRAs, in no particular order
+     */
+    public Stream<LongRunningAction> stream(Predicate<LongRunningAction> filter) {
+        return entries().map(Map.Entry::getValue).filter(filter);
+    }
+
+    /**
+     * Select a page of the LRAs (active and recovering) that match a filter. The LRAs are ordered by uid so that
+     * a listing can be continued from the last LRA of the previous page. Only the requested page is collected.
+     *
+     * @param filter the LRAs to include
+     * @param after the uid (in file string form) of the last LRA of the previous page, or null for the first page
+     * @param limit the maximum number of LRAs to return
+     * @return the matching LRAs, keyed and ordered by uid
+     */
+    public SortedMap<String, LongRunningAction> getPage(Predicate<LongRunningAction> filter, String after, int limit) {
+        TreeMap<String, LongRunningAction> page = new TreeMap<>();
+
+        entries().forEach(entry -> {
+            String uid = entry.getKey();
+
+            if ((after == null || uid.compareTo(after) > 0)
+                    && (page.size() < limit || uid.compareTo(page.lastKey()) < 0)
+                    && filter.test(entry.getValue())) {
+                page.put(uid, entry.getValue());
+
+                if (page.size() > limit) {
+                    page.pollLastEntry();
+                }
+            }
+        });
+
+        return page;
+    }
+
+    // every LRA keyed by uid, preferring the recovering instance if there is also an active one
+    private Stream<Map.Entry<String, LongRunningAction>> entries() {
+        return Stream.concat(recoveringLRAsByUid.entrySet().stream(),
+                lrasByUid.entrySet().stream().filter(entry -> !recoveringLRAsByUid.containsKey(entry.getKey())));
+    }
+
     /**
      * Getting all the LRA managed by recovery manager. This means all LRAs which are not mapped
      * only in memory but that were already saved in object store.
@@ -149,15 +210,18 @@ public class LRAService {
     }
 
     public void addTransaction(LongRunningAction lra) {
-        lras.putIfAbsent(lra.getId(), lra);
+        if (lras.putIfAbsent(lra.getId(), lra) == null) {
+            lrasByUid.put(uidOf(lra), lra);
+        }
     }
 
     public void finished(LongRunningAction transaction, boolean fromHierarchy) {
         if (transaction.isFailed()) {
-            getRM().moveEntryToFailedLRAPath(transaction.get_uid());
+            getRM().moveEntryToFailedLRAPath(transaction);
         }
         if (transaction.isRecovering()) {
             recoveringLRAs.put(transaction.getId(), transaction);
+            recoveringLRAsByUid.put(uidOf(transaction), transaction);
         } else if (fromHierarchy || transaction.isTopLevel()) {
             // the LRA is top level or it's a nested LRA that was closed by a
             // parent LRA (ie when fromHierarchy is true) then it's okay to forget about the LRA
@@ -186,6 +250,24 @@ public class LRAService {
         }
     }
 
+    /**
+     * Remove the log of a failed LRA, whether or not it has been moved to the failed LRA records yet
+     * @param lraId the id of the LRA
+     * @return true if a record was removed
+     */
+    public boolean removeFailedLog(String lraId) {
+        String uid = LRAConstants.getLRAUid(lraId);
+
+        try {
+            boolean removed = getRM().removeFailedLRA(new Uid(uid));
+
+            return getRM().removeCommitted(new Uid(uid)) || removed;
+        } catch (Exception e) {
+            LRALogger.i18nLogger.warn_cannotRemoveUidRecord(lraId, uid, e);
+            return false;
+        }
+    }
+
     public void remove(LongRunningAction lra) {
         if (lra.isFailed()) { // persist failed LRA state
             lra.deactivate();
@@ -199,18 +281,32 @@ public class LRAService {
         LongRunningAction lra = lras.remove(lraId);
 
         if (lra != null) {
-            lraParticipants.remove(lra);
+            lrasByUid.remove(uidOf(lra), lra);
+
+            Map<String, String> participants = lraParticipants.remove(lra);
+
+            if (participants != null) {
+                participants.keySet().forEach(participantsByRecoveryId::remove);
+            }
         }
 
-        recoveringLRAs.remove(lraId);
+        LongRunningAction recovering = recoveringLRAs.remove(lraId);
 
-        locks.remove(lraId);
+        if (recovering != null) {
+            recoveringLRAsByUid.remove(uidOf(recovering), recovering);
+        }
+        // the lock entry for the LRA is removed when the last thread using it unlocks it
     }
 
     public void recover() {
         getRM().recover();
     }
 
+    // recover a single LRA from the store
+    public void recover(Uid uid) {
+        getRM().recover(uid);
+    }
+
     // perform a recovery scan to load any recovering LRAs from the store
     public void scan() {
         getRM().periodicWorkSecondPass(); // periodicWorkFirstPass is a no-op
@@ -229,8 +325,9 @@ public class LRAService {
             participants = new ConcurrentHashMap<>();
             participants.put(recoveryURI, compensatorUrl);
             lraParticipants.put(transaction, participants);
-        } else {
-            participants.replace(recoveryURI, compensatorUrl);
+            participantsByRecoveryId.put(recoveryURI, compensatorUrl);
+        } else if (participants.replace(recoveryURI, compensatorUrl) != null) {
+            participantsByRecoveryId.put(recoveryURI, compensatorUrl);
         }
 
         if (persist) {
@@ -241,18 +338,21 @@ public class LRAService {
     }
 
     public String getParticipant(String rcvCoordId) {
-        for (Map<String, String> compensators : lraParticipants.values()) {
-            String compensator = compensators.get(rcvCoordId);
-
-            if (compensator != null) {
-                return compensator;
-            }
-        }
-
-        return null;
+        return participantsByRecoveryId.get(rcvCoordId);
     }
 
-    public synchronized LongRunningAction startLRA(String baseUri, URI parentLRA, String clientId, Long timelimit) {
+    /**
+     * Start a new LRA. Concurrent starts do not contend with each other: apart from the (concurrent) maps of
+     * active LRAs the only state that is touched belongs to the new LRA itself, persisting it is a write of its
+     * own log record, and linking a nested LRA with an in-VM parent is guarded by the parent's own lock.
+     *
+     * @param baseUri the base of the id of the new LRA
+     * @param parentLRA the id of the enclosing LRA or null if the new LRA is top level
+     * @param clientId the id of the client that started the LRA
+     * @param timelimit the time (in milliseconds) after which the LRA will be cancelled, 0 means never
+     * @return the new LRA
+     */
+    public LongRunningAction startLRA(String baseUri, URI parentLRA, String clientId, Long timelimit) {
         LongRunningAction lra;
         int status;
 
@@ -444,6 +544,10 @@ public class LRAService {
         }
     }
 
+    private static String uidOf(LongRunningAction lra) {
+        return lra.get_uid().fileStringForm();
+    }
+
     private void lraTrace(URI lraId, String reason) {
         if (LRALogger.logger.isTraceEnabled()) {
             if (lraId != null && lras.containsKey(lraId)) {
@@ -467,11 +571,18 @@ public class LRAService {
     }
 
     public List<LRAData> getFailedLRAs() {
-        Map<URI, LongRunningAction> failedLRAs = new ConcurrentHashMap<>();
-
-        getRM().getFailedLRAs(failedLRAs);
+        return new ArrayList<>(getFailedLRAs(null, Integer.MAX_VALUE).values());
+    }
 
-        return failedLRAs.values().stream().map(LongRunningAction::getLRAData).collect(toList());
+    /**
+     * Return a page of the LRAs that have failed
+     *
+     * @param after only return the LRAs whose uid is greater than this one, or null to start from the first one
+     * @param limit the maximum number of LRAs to return
+     * @return the failed LRAs, keyed and ordered by uid
+     */
+    public SortedMap<String, LRAData> getFailedLRAs(String after, int limit) {
+        return getRM().getFailedLRAs(after, limit);
     }
 
     private LRARecoveryModule getRM() {
@@ -0,0 +1,157 @@
+/*
+   Copyright The Narayana Authors
+   SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.narayana.lra.coordinator.internal;
+
+import io.narayana.lra.logging.LRALogger;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stops the coordinator from calling a participant host that keeps failing.
+ * <p>
+ * When a host is down, every LRA that enlisted a participant on it would otherwise wait for the participant
+ * timeout before giving up. If the system property {@value #CIRCUIT_BREAKER_PROPERTY} is true, each host gets a
+ * breaker that opens after {@value #FAILURE_THRESHOLD_PROPERTY} consecutive requests to the host fail (5 by
+ * default). A request fails if the host cannot be reached, does not answer in time or answers with one of the
+ * HTTP statuses listed (comma separated) in {@value #FAILURE_STATUSES_PROPERTY} (502, 503 and 504 by default, the
+ * statuses that say the host is not able to handle the request), any other HTTP response counts as a success. Whilst the breaker is open, requests to the host fail straight away, which leaves the
+ * participants to recovery in the same way as any other failed request. After {@value #OPEN_DURATION_PROPERTY}
+ * milliseconds (10 seconds by default) the breaker half opens and lets a single probe request through: if the
+ * probe succeeds the breaker closes, otherwise it opens again.
+ * <p>
+ * The breakers are kept by {@link ParticipantClient} and reported with the usage of each host. The properties
+ * are read whenever they are needed.
+ */
+public final class CircuitBreaker {
+    public static final String CIRCUIT_BREAKER_PROPERTY = "lra.coordinator.circuit.breaker";
+    public static final String FAILURE_THRESHOLD_PROPERTY = "lra.coordinator.circuit.breaker.failures";
+    public static final String OPEN_DURATION_PROPERTY = "lra.coordinator.circuit.breaker.open";
+    public static final String FAILURE_STATUSES_PROPERTY = "lra.coordinator.circuit.breaker.failure.statuses";
+
+    private static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    private static final long DEFAULT_OPEN_DURATION_MILLIS = 10_000L;
+    private static final String DEFAULT_FAILURE_STATUSES = "502,503,504";
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String host;
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong opened = new AtomicLong();
+    private volatile State state = State.CLOSED;
+    private int consecutiveFailures; // guarded by this
+    private long openUntil; // guarded by this
+
+    CircuitBreaker(String host) {
+        this.host = host;
+    }
+
+    static boolean isEnabled() {
+        return Boolean.getBoolean(CIRCUIT_BREAKER_PROPERTY);
+    }
+
+    /**
+     * @param status the HTTP status of a response from the host
+     * @return true if the response counts as a failure of the host
+     */
+    static boolean isFailure(int status) {
+        for (String failure : System.getProperty(FAILURE_STATUSES_PROPERTY, DEFAULT_FAILURE_STATUSES).split(",")) {
+            if (failure.trim().equals(Integer.toString(status))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Decide whether a request may be sent to the host.
+     *
+     * @return the state in which the request was allowed (HALF_OPEN for the probe), or null to reject it
+     */
+    synchronized State allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return State.CLOSED;
+            case OPEN:
+                if (System.currentTimeMillis() >= openUntil) {
+                    state = State.HALF_OPEN;
+
+                    return State.HALF_OPEN;
+                }
+                /* FALLTHRU */
+            default: // a probe is already in progress
+                rejected.incrementAndGet();
+
+                return null;
+        }
+    }
+
+    synchronized void onSuccess() {
+        consecutiveFailures = 0;
+
+        if (state != State.CLOSED) {
+            state = State.CLOSED;
+            LRALogger.logger.infof("Circuit breaker for participant host %s closed", host);
+        }
+    }
+
+    synchronized void onFailure() {
+        consecutiveFailures++;
+
+        if (state == State.HALF_OPEN
+                || (state == State.CLOSED && consecutiveFailures >= Integer.getInteger(FAILURE_THRESHOLD_PROPERTY,
+                DEFAULT_FAILURE_THRESHOLD))) {
+            state = State.OPEN;
+            openUntil = System.currentTimeMillis() + Long.getLong(OPEN_DURATION_PROPERTY, DEFAULT_OPEN_DURATION_MILLIS);
+            opened.incrementAndGet();
+            LRALogger.logger.infof("Circuit breaker for participant host %s opened after %d consecutive failures",
+                    host, consecutiveFailures);
+        }
+    }
+
+    // the probe finished without an outcome so let the next request probe the host instead
+    synchronized void onProbeAbandoned() {
+        if (state == State.HALF_OPEN) {
+            state = State.OPEN;
+        }
+    }
+
+    /**
+     * @return whether requests to the host are being sent (CLOSED), rejected (OPEN) or probed (HALF_OPEN)
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * @return the number of requests that have failed in a row
+     */
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /**
+     * @return the number of requests that were rejected without being sent
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * @return the number of times the breaker has opened
+     */
+    public long getOpened() {
+        return opened.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: state=%s failures=%d rejected=%d opened=%d",
+                host, getState(), getConsecutiveFailures(), getRejected(), getOpened());
+    }
+}
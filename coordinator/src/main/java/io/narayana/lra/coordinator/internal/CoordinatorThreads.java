@@ -0,0 +1,208 @@
+/*
+   Copyright The Narayana Authors
+   SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.narayana.lra.coordinator.internal;
+
+import io.narayana.lra.logging.LRALogger;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Decides which threads the coordinator uses for work that blocks on participants or on the object store:
+ * ending LRAs, cancelling LRAs whose time limit has passed and replaying LRAs during recovery.
+ * <p>
+ * By default the work runs on the platform threads that the coordinator already uses (the request thread,
+ * the timer pool and the recovery thread). If the system property {@value #VIRTUAL_THREADS_PROPERTY} is
+ * true then each piece of work runs on its own virtual thread instead. Virtual threads are only available
+ * from Java 21 so they are looked up reflectively. On earlier releases a warning is logged and the default
+ * platform threads are used.
+ */
+public final class CoordinatorThreads {
+    public static final String VIRTUAL_THREADS_PROPERTY = "lra.coordinator.virtual.threads";
+
+    private static volatile ExecutorService virtualExecutor;
+    private static volatile boolean unavailable;
+
+    private CoordinatorThreads() {
+    }
+
+    /**
+     * @return true if blocking coordinator work is being run on virtual threads
+     */
+    public static boolean isVirtual() {
+        return getExecutor() != null;
+    }
+
+    /**
+     * @return the executor that starts a virtual thread for each task, or null if the coordinator uses
+     * its platform threads (either because the mode is off or because the JVM does not support it)
+     */
+    public static ExecutorService getExecutor() {
+        if (!Boolean.getBoolean(VIRTUAL_THREADS_PROPERTY) || unavailable) {
+            return null;
+        }
+
+        ExecutorService executor = virtualExecutor;
+
+        if (executor == null) {
+            synchronized (CoordinatorThreads.class) {
+                executor = virtualExecutor;
+
+                if (executor == null && !unavailable) {
+                    virtualExecutor = executor = createVirtualExecutor();
+                    unavailable = executor == null;
+                }
+            }
+        }
+
+        return executor;
+    }
+
+    /**
+     * Run a task that may block. It runs on a new virtual thread in virtual mode, otherwise it runs
+     * on the calling thread.
+     *
+     * @param task the work to run
+     */
+    public static void execute(Runnable task) {
+        ExecutorService executor = getExecutor();
+
+        if (executor != null) {
+            try {
+                executor.execute(task);
+                return;
+            } catch (RejectedExecutionException e) {
+                // the executor has been shut down so fall back to the calling thread
+            }
+        }
+
+        task.run();
+    }
+
+    /**
+     * Apply an action to each item and wait for all of them to finish, handling at most parallelism items at a
+     * time. In virtual mode each item is handled on its own virtual thread. Otherwise, if parallelism is greater
+     * than one, the items are shared between that many platform threads which are started for the call and
+     * stopped when it returns, else they are handled one after another on the calling thread. If the calling
+     * thread is interrupted it stops handing out items and waiting, and the interrupt is preserved.
+     *
+     * @param items the items to process
+     * @param action the work to do for each item, it should handle its own failures
+     * @param parallelism the maximum number of items to handle at the same time
+     * @param <T> the type of the items
+     */
+    public static <T> void forEach(Collection<T> items, Consumer<T> action, int parallelism) {
+        if (items.size() <= 1 || parallelism <= 1) {
+            items.forEach(action);
+            return;
+        }
+
+        ExecutorService executor = getExecutor();
+
+        if (executor != null) {
+            // virtual threads are cheap but the participants and the store that the work calls are not
+            awaitAll(executor, items, action, parallelism);
+        } else {
+            AtomicInteger threadId = new AtomicInteger();
+            ExecutorService pool = Executors.newFixedThreadPool(Math.min(parallelism, items.size()), task -> {
+                Thread thread = new Thread(task, "lra-coordinator-worker-" + threadId.incrementAndGet());
+
+                thread.setDaemon(true);
+
+                return thread;
+            });
+
+            try {
+                awaitAll(pool, items, action, parallelism);
+            } finally {
+                pool.shutdownNow(); // the tasks have finished unless the calling thread was interrupted
+            }
+        }
+    }
+
+    private static <T> void awaitAll(ExecutorService executor, Collection<T> items, Consumer<T> action, int parallelism) {
+        List<Future<?>> tasks = new ArrayList<>(items.size());
+        Semaphore running = new Semaphore(parallelism);
+
+        for (T item : items) {
+            try {
+                running.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            try {
+                tasks.add(executor.submit(() -> {
+                    try {
+                        action.accept(item);
+                    } finally {
+                        running.release();
+                    }
+                }));
+            } catch (RejectedExecutionException e) {
+                // the executor has been shut down so process the remaining items on the calling thread
+                running.release();
+                items.stream().skip(tasks.size()).forEach(action);
+                break;
+            }
+        }
+
+        for (Future<?> task : tasks) {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                if (LRALogger.logger.isDebugEnabled()) {
+                    LRALogger.logger.debug("Coordinator task failed", e.getCause());
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop accepting new work on virtual threads, a new executor is created if the mode is still on
+     * when there is subsequent work.
+     */
+    public static void shutdown() {
+        ExecutorService executor;
+
+        synchronized (CoordinatorThreads.class) {
+            executor = virtualExecutor;
+            virtualExecutor = null;
+        }
+
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private static ExecutorService createVirtualExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException
+                 | UnsupportedOperationException e) {
+            // before Java 21 the method is missing (or is a preview feature that has not been enabled)
+            LRALogger.logger.warnf("System property %s is set but virtual threads are not supported by this JVM (%s %s)," +
+                            " the coordinator will use platform threads",
+                    VIRTUAL_THREADS_PROPERTY, System.getProperty("java.version"),
+                    e instanceof InvocationTargetException ? e.getCause() : e);
+            return null;
+        }
+    }
+}
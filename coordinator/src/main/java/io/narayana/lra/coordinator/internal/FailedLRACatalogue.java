@@ -0,0 +1,154 @@
+/*
+   Copyright The Narayana Authors
+   SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.narayana.lra.coordinator.internal;
+
+import com.arjuna.ats.arjuna.common.Uid;
+import io.narayana.lra.LRAData;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The failed LRAs in the object store, ordered by uid.
+ * <p>
+ * Listing failed LRAs used to read and restore every failed record in the store on every request. The catalogue
+ * only lists the uids of the records, which does not read them, and restores a record the first time it is
+ * listed in order to summarise it. Only the summary is kept, the participants of the LRA are not. The recovery
+ * module keeps a single catalogue for as long as it runs: moving an LRA to the failed records or deleting a
+ * failed record updates it, and every recovery pass reconciles it with the uids in the store in case the records
+ * were changed by something else. If the system property {@value #CATALOGUE_PROPERTY} is false a new catalogue
+ * is built for every request instead, which lists every uid and restores the records on the requested page.
+ */
+public final class FailedLRACatalogue {
+    public static final String CATALOGUE_PROPERTY = "lra.coordinator.failed.catalogue";
+
+    private final ConcurrentSkipListMap<String, Entry> entries = new ConcurrentSkipListMap<>();
+    private final Supplier<Collection<Uid>> lister;
+    private final Function<Uid, LRAData> loader;
+    private volatile boolean loaded;
+
+    /**
+     * @param lister lists the uids of the failed records in the store, or returns null if they cannot be listed
+     * @param loader restores a failed record and summarises it, or returns null if the record is not a failed LRA
+     */
+    FailedLRACatalogue(Supplier<Collection<Uid>> lister, Function<Uid, LRAData> loader) {
+        this.lister = lister;
+        this.loader = loader;
+    }
+
+    static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty(CATALOGUE_PROPERTY, "true"));
+    }
+
+    /**
+     * Record that an LRA has been moved to the failed records.
+     *
+     * @param uid the uid of the LRA
+     * @param summary the summary of the LRA, or null to restore the record when it is first listed
+     */
+    void added(Uid uid, LRAData summary) {
+        // the catalogue is only kept up to date once it is in use
+        if (loaded || isEnabled()) {
+            entries.put(uid.fileStringForm(), new Entry(uid, summary));
+        }
+    }
+
+    void removed(Uid uid) {
+        entries.remove(uid.fileStringForm());
+    }
+
+    /**
+     * Bring the catalogue up to date with the failed records that are in the store.
+     */
+    void reconcile() {
+        long listedAt = System.nanoTime();
+        Collection<Uid> stored = lister.get();
+
+        if (stored == null) {
+            return;
+        }
+
+        Set<String> keys = new HashSet<>();
+
+        for (Uid uid : stored) {
+            String key = uid.fileStringForm();
+
+            keys.add(key);
+            entries.putIfAbsent(key, new Entry(uid, null));
+        }
+
+        // leave entries added whilst the store was being listed, the listing may have missed them
+        entries.entrySet().removeIf(entry -> entry.getValue().addedAt - listedAt < 0 && !keys.contains(entry.getKey()));
+        loaded = true;
+    }
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Return a page of the failed LRAs, restoring the records that have not been summarised yet.
+     *
+     * @param after only return the LRAs whose uid is greater than this one, or null to start from the first one
+     * @param limit the maximum number of LRAs to return
+     * @return the summaries of the failed LRAs, keyed and ordered by uid
+     */
+    SortedMap<String, LRAData> getPage(String after, int limit) {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    reconcile();
+                }
+            }
+        }
+
+        SortedMap<String, LRAData> page = new TreeMap<>();
+        Map<String, Entry> candidates = after == null ? entries : entries.tailMap(after, false);
+
+        for (Map.Entry<String, Entry> candidate : candidates.entrySet()) {
+            if (page.size() >= limit) {
+                break;
+            }
+
+            Entry entry = candidate.getValue();
+            LRAData summary = entry.summary;
+
+            if (summary == null) {
+                summary = loader.apply(entry.uid);
+
+                if (summary == null) {
+                    // the record has gone or it is not a failed LRA
+                    entries.remove(candidate.getKey(), entry);
+                    continue;
+                }
+
+                entry.summary = summary;
+            }
+
+            page.put(candidate.getKey(), summary);
+        }
+
+        return page;
+    }
+
+    private static final class Entry {
+        private final Uid uid;
+        private final long addedAt = System.nanoTime();
+        private volatile LRAData summary;
+
+        private Entry(Uid uid, LRAData summary) {
+            this.uid = uid;
+            this.summary = summary;
+        }
+    }
+}
@@ -12,6 +12,7 @@ import com.arjuna.ats.arjuna.coordinator.abstractrecord.RecordTypeMap;
 import io.narayana.lra.coordinator.domain.model.LRAChildAbstractRecord;
 import io.narayana.lra.coordinator.domain.model.LRAParentAbstractRecord;
 import io.narayana.lra.coordinator.domain.model.LRAParticipantRecord;
+import io.narayana.lra.coordinator.management.CoordinatorMetrics;
 
 public class Implementations {
     private static boolean added;
@@ -60,6 +61,7 @@ public class Implementations {
             RecordTypeManager.manager().add(participantRecordTypeMap);
             RecordTypeManager.manager().add(parentAbstractRecordTypeMap);
             RecordTypeManager.manager().add(childAbstractRecord);
+            CoordinatorMetrics.register();
             added = true;
         }
     }
@@ -69,6 +71,11 @@ public class Implementations {
             RecordTypeManager.manager().remove(participantRecordTypeMap);
             RecordTypeManager.manager().remove(parentAbstractRecordTypeMap);
             RecordTypeManager.manager().remove(childAbstractRecord);
+            CoordinatorMetrics.unregister();
+            ParticipantClient.close();
+            CoordinatorThreads.shutdown();
+            TimingWheel.shutdown();
+            ParticipantRetries.reset();
             added = false;
         }
     }
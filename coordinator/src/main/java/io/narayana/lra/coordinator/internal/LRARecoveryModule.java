@@ -9,6 +9,7 @@ import com.arjuna.ats.arjuna.common.Uid;
 import com.arjuna.ats.arjuna.common.recoveryPropertyManager;
 import com.arjuna.ats.arjuna.exceptions.ObjectStoreException;
 import com.arjuna.ats.arjuna.recovery.RecoveryManager;
+import io.narayana.lra.LRAData;
 import io.narayana.lra.logging.LRALogger;
 import com.arjuna.ats.arjuna.objectstore.RecoveryStore;
 import com.arjuna.ats.arjuna.objectstore.StateStatus;
@@ -19,17 +20,28 @@ import com.arjuna.ats.arjuna.state.InputObjectState;
 import com.arjuna.ats.arjuna.state.OutputObjectState;
 import io.narayana.lra.coordinator.domain.model.LongRunningAction;
 import io.narayana.lra.coordinator.domain.model.FailedLongRunningAction;
+import io.narayana.lra.coordinator.domain.model.ParticipantLog;
 import io.narayana.lra.coordinator.domain.service.LRAService;
 import org.eclipse.microprofile.lra.annotation.LRAStatus;
 
 import java.io.IOException;
-import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Map;
+import java.util.SortedMap;
 import java.util.function.Consumer;
 
 public class LRARecoveryModule implements RecoveryModule {
+    /**
+     * The number of threads used to recover the LRAs found during a recovery pass. The default of one recovers
+     * them one after another so a pass takes as long as all of the participant calls put together. A larger
+     * value recovers that many LRAs at a time, each one independently of the others, so that a slow or
+     * unreachable participant only delays the LRAs that it belongs to. The threads only exist for the duration
+     * of a pass. In virtual thread mode each LRA is recovered on its own virtual thread and the property limits
+     * how many are recovered at a time ({@value #DEFAULT_VIRTUAL_RECOVERY_THREADS} by default).
+     */
+    public static final String RECOVERY_THREADS_PROPERTY = "lra.coordinator.recovery.threads";
+    static final int DEFAULT_VIRTUAL_RECOVERY_THREADS = 64;
+
     public LRARecoveryModule() {
         service = new LRAService();
 
@@ -96,11 +108,27 @@ public class LRARecoveryModule implements RecoveryModule {
          // uids per transaction type
         InputObjectState aa_uids = new InputObjectState();
 
+        if (failedLRAs.isLoaded()) {
+            failedLRAs.reconcile();
+        }
+
         if (getUids(_transactionType, aa_uids)) {
+            ParticipantLog.removeOrphanedEntries(_recoveryStore);
             processTransactionsStatus(processTransactions(aa_uids));
         }
     }
 
+    /**
+     * An LRA that this coordinator holds in memory in the Active state is still in flight, so there is nothing
+     * for recovery to do and no need to read its log. LRAs that are being closed or cancelled, or that are
+     * waiting for participants to finish, are still recovered from the store.
+     */
+    private boolean isInFlight(Uid uid) {
+        LongRunningAction live = service.lookupTransaction(uid);
+
+        return live != null && live.getLRAStatus() == LRAStatus.Active;
+    }
+
     private void doRecoverTransaction(Uid recoverUid) {
         // Retrieve the transaction status from its original process // TODO remove because it is not needed
         int theStatus = _transactionStatusConnectionMgr.getTransactionStatus(_transactionType, recoverUid);
@@ -111,7 +139,7 @@ public class LRARecoveryModule implements RecoveryModule {
 
             LRAStatus lraStatus = lra.getLRAStatus();
             if (LRAStatus.FailedToCancel.equals(lraStatus) || LRAStatus.FailedToClose.equals(lraStatus)) {
-                moveEntryToFailedLRAPath(recoverUid);
+                moveEntryToFailedLRAPath(lra);
                 return;
             }
 
@@ -143,7 +171,15 @@ public class LRARecoveryModule implements RecoveryModule {
         }
     }
 
+    public boolean moveEntryToFailedLRAPath(LongRunningAction lra) {
+        return moveEntryToFailedLRAPath(lra.get_uid(), lra.getLRAData());
+    }
+
     public boolean moveEntryToFailedLRAPath (final Uid failedUid) {
+        return moveEntryToFailedLRAPath(failedUid, null);
+    }
+
+    private boolean moveEntryToFailedLRAPath(final Uid failedUid, LRAData summary) {
         String failedLRAType = FailedLongRunningAction.FAILED_LRA_TYPE;
         boolean moved = false;
         try {
@@ -157,6 +193,8 @@ public class LRARecoveryModule implements RecoveryModule {
                         LRALogger.i18nLogger.warn_UnableToRemoveDuplicateFailedLRAParticipantRecord(
                                 failedUid.toString(), failedLRAType, _transactionType);
                         moved = false;
+                    } else {
+                        failedLRAs.added(failedUid, summary);
                     }
                     return moved;
                 }
@@ -164,6 +202,7 @@ public class LRARecoveryModule implements RecoveryModule {
                 if (_recoveryStore.write_committed(failedUid, failedLRAType, new OutputObjectState(inputState))) {
                     moved = _recoveryStore.remove_committed(failedUid, _transactionType);
                     if (moved) {
+                        failedLRAs.added(failedUid, summary);
                         LRALogger.logger.infof("Failed lra record (Uid: %s) moved to new location type: %s", failedUid, failedLRAType);
                     }
                 }
@@ -189,24 +228,34 @@ public class LRARecoveryModule implements RecoveryModule {
     }
 
     private void processTransactionsStatus(Collection<Uid> uids) {
-        // Process the collection of transaction Uids
-        uids.forEach(uid -> {
-            try {
-                if (_recoveryStore.currentState(uid, _transactionType) != StateStatus.OS_UNKNOWN) {
-                    doRecoverTransaction(uid);
-                }
-            } catch (ObjectStoreException e) {
-                if (LRALogger.logger.isTraceEnabled()) {
-                    LRALogger.logger.tracef(e,
-                            "LRARecoverModule: Object store exception '%s' while reading the current state of LRA record %s:",
-                            e.getMessage(), uid.fileStringForm());
-                } else if (LRALogger.logger.isInfoEnabled()) {
-                    LRALogger.logger.infof(
-                            "LRARecoverModule: Object store exception '%s' while reading the current state of LRA record %s",
-                            e.getMessage(), uid.fileStringForm());
-                }
+        // Process the collection of transaction Uids (concurrently if more than one recovery thread is configured
+        // or, by default, if running in virtual thread mode)
+        int threads = Integer.getInteger(RECOVERY_THREADS_PROPERTY,
+                CoordinatorThreads.isVirtual() ? DEFAULT_VIRTUAL_RECOVERY_THREADS : 1);
+
+        CoordinatorThreads.forEach(uids, this::recoverTransaction, threads);
+    }
+
+    private void recoverTransaction(Uid uid) {
+        if (isInFlight(uid)) {
+            return;
+        }
+
+        try {
+            if (_recoveryStore.currentState(uid, _transactionType) != StateStatus.OS_UNKNOWN) {
+                doRecoverTransaction(uid);
             }
-        });
+        } catch (ObjectStoreException e) {
+            if (LRALogger.logger.isTraceEnabled()) {
+                LRALogger.logger.tracef(e,
+                        "LRARecoverModule: Object store exception '%s' while reading the current state of LRA record %s:",
+                        e.getMessage(), uid.fileStringForm());
+            } else if (LRALogger.logger.isInfoEnabled()) {
+                LRALogger.logger.infof(
+                        "LRARecoverModule: Object store exception '%s' while reading the current state of LRA record %s",
+                        e.getMessage(), uid.fileStringForm());
+            }
+        }
     }
 
     /**
@@ -237,21 +286,82 @@ public class LRARecoveryModule implements RecoveryModule {
         recoverTransactions();
     }
 
-    public void getFailedLRAs(Map<URI, LongRunningAction> lras) {
-        InputObjectState aa_uids = new InputObjectState();
-        Consumer<Uid> failedLRACreator = uid -> {
-            FailedLongRunningAction lra = new FailedLongRunningAction(service, new Uid(uid));
-            lra.activate();
+    /**
+     * Recover a single LRA without waiting for the next recovery pass
+     *
+     * @param uid the uid of the LRA
+     */
+    public void recover(Uid uid) {
+        recoverTransaction(uid);
+    }
+
+    /**
+     * remove the log record of a failed LRA
+     *
+     * @param lraUid the uid of the failed LRA
+     * @return false if the record isn't in the store or there was an error removing it
+     */
+    public boolean removeFailedLRA(Uid lraUid) {
+        String failedLRAType = FailedLongRunningAction.FAILED_LRA_TYPE;
 
-            LRAStatus status = lra.getLRAStatus();
-            if (LRAStatus.FailedToCancel.equals(status) || LRAStatus.FailedToClose.equals(status)) {
-                lras.put(lra.getId(), lra);
+        try {
+            if (_recoveryStore.currentState(lraUid, failedLRAType) != StateStatus.OS_UNKNOWN
+                    && _recoveryStore.remove_committed(lraUid, failedLRAType)) {
+                failedLRAs.removed(lraUid);
+
+                return true;
             }
-        };
+        } catch (ObjectStoreException e) {
+            if (LRALogger.logger.isInfoEnabled()) {
+                LRALogger.logger.infof(
+                        "LRARecoveryModule: Object store exception '%s' while removing failed LRA record %s",
+                        e.getMessage(), lraUid.fileStringForm());
+            }
+        }
 
-        if (getUids(FailedLongRunningAction.FAILED_LRA_TYPE, aa_uids)) {
-            forEach(aa_uids, failedLRACreator, FailedLongRunningAction.FAILED_LRA_TYPE);
+        return false;
+    }
+
+    /**
+     * Return a page of the failed LRAs, see {@link FailedLRACatalogue}
+     *
+     * @param after only return the LRAs whose uid is greater than this one, or null to start from the first one
+     * @param limit the maximum number of LRAs to return
+     * @return the failed LRAs, keyed and ordered by uid
+     */
+    public SortedMap<String, LRAData> getFailedLRAs(String after, int limit) {
+        FailedLRACatalogue catalogue = FailedLRACatalogue.isEnabled() ? failedLRAs : newFailedLRACatalogue();
+
+        return catalogue.getPage(after, limit);
+    }
+
+    private FailedLRACatalogue newFailedLRACatalogue() {
+        return new FailedLRACatalogue(this::getFailedUids, this::loadFailedLRA);
+    }
+
+    private Collection<Uid> getFailedUids() {
+        InputObjectState aa_uids = new InputObjectState();
+        Collection<Uid> uids = new ArrayList<>();
+
+        if (!getUids(FailedLongRunningAction.FAILED_LRA_TYPE, aa_uids)) {
+            return null;
         }
+
+        forEach(aa_uids, uids::add, FailedLongRunningAction.FAILED_LRA_TYPE);
+
+        return uids;
+    }
+
+    private LRAData loadFailedLRA(Uid uid) {
+        FailedLongRunningAction lra = new FailedLongRunningAction(service, new Uid(uid));
+
+        if (!lra.activate()) {
+            return null;
+        }
+
+        LRAStatus status = lra.getLRAStatus();
+
+        return LRAStatus.FailedToCancel.equals(status) || LRAStatus.FailedToClose.equals(status) ? lra.getLRAData() : null;
     }
 
     private boolean getUids(final String type, InputObjectState aa_uids) {
@@ -314,6 +424,9 @@ public class LRARecoveryModule implements RecoveryModule {
 
     private final LRAService service;
 
+    // kept up to date unless the catalogue is disabled, see FailedLRACatalogue
+    private final FailedLRACatalogue failedLRAs = newFailedLRACatalogue();
+
     // 'type' within the Object Store for LRAs.
     private final String _transactionType = LongRunningAction.getType();
 
@@ -0,0 +1,317 @@
+/*
+   Copyright The Narayana Authors
+   SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.narayana.lra.coordinator.internal;
+
+import io.narayana.lra.logging.LRALogger;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import jakarta.ws.rs.client.ClientResponseFilter;
+import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The JAX-RS client that the coordinator uses for all of its traffic to participants and to remote coordinators.
+ * A single client (and hence a single connection pool with keep-alive connections) is shared by every
+ * participant record instead of building and closing a client for each callback.
+ * <p>
+ * When the JAX-RS implementation is RESTEasy the connection pool is sized using the system properties
+ * {@value #POOL_SIZE_PROPERTY} (total connections) and {@value #POOL_SIZE_PER_HOST_PROPERTY} (connections
+ * to any one participant host), and a pooled connection is reused for at most {@value #CONNECTION_TTL_PROPERTY}
+ * seconds. The properties are read when the client is created. Responses are read in full as soon as they
+ * arrive, so a response that nobody reads (because the request timed out) does not keep its connection out of
+ * the pool. Pool usage per participant host is recorded by callers obtaining a {@link Lease} for each request,
+ * and the outcome that they report when closing the lease drives the {@link CircuitBreaker} of the host.
+ * If the coordinator is running in virtual thread mode (see {@link CoordinatorThreads}) when the client is
+ * created then asynchronous requests run on virtual threads.
+ */
+public final class ParticipantClient {
+    public static final String POOL_SIZE_PROPERTY = "lra.coordinator.client.pool.size";
+    public static final String POOL_SIZE_PER_HOST_PROPERTY = "lra.coordinator.client.pool.size.per-host";
+    public static final String CONNECTION_TTL_PROPERTY = "lra.coordinator.client.connection.ttl";
+
+    private static final int DEFAULT_POOL_SIZE = 200;
+    private static final int DEFAULT_POOL_SIZE_PER_HOST = 20;
+    private static final long DEFAULT_CONNECTION_TTL = 60L; // seconds
+
+    private static final Map<String, HostUsage> usage = new ConcurrentHashMap<>();
+    private static volatile Client client;
+    private static volatile int poolSizePerHost = DEFAULT_POOL_SIZE_PER_HOST;
+
+    private ParticipantClient() {
+    }
+
+    /**
+     * Obtain the shared client for a request to the given target. The returned lease must be closed
+     * when the response has been consumed, it does not close the shared client.
+     *
+     * @param target the endpoint that is about to be invoked
+     * @return a lease on the shared client
+     */
+    public static Lease lease(URI target) {
+        HostUsage hostUsage = usage.computeIfAbsent(hostOf(target), HostUsage::new);
+        CircuitBreaker.State permit = CircuitBreaker.State.CLOSED;
+
+        if (CircuitBreaker.isEnabled()) {
+            permit = hostUsage.circuitBreaker.allowRequest();
+
+            if (permit == null) {
+                return new Lease(null, hostUsage, null); // the breaker is open so fail fast
+            }
+        }
+
+        hostUsage.acquire();
+
+        return new Lease(getClient(), hostUsage, permit);
+    }
+
+    /**
+     * @return the shared client, creating it if necessary
+     */
+    public static Client getClient() {
+        Client c = client;
+
+        if (c == null) {
+            synchronized (ParticipantClient.class) {
+                c = client;
+
+                if (c == null) {
+                    client = c = createClient();
+                }
+            }
+        }
+
+        return c;
+    }
+
+    /**
+     * Close the shared client, a new one is created if there is a subsequent request.
+     */
+    public static void close() {
+        Client c;
+
+        synchronized (ParticipantClient.class) {
+            c = client;
+            client = null;
+        }
+
+        if (c != null) {
+            c.close();
+        }
+    }
+
+    /**
+     * @return a snapshot of the pool usage keyed by participant host (host:port)
+     */
+    public static Map<String, HostUsage> getPoolUsage() {
+        return Collections.unmodifiableMap(new TreeMap<>(usage));
+    }
+
+    private static Client createClient() {
+        ClientBuilder builder = ClientBuilder.newBuilder();
+        ExecutorService executor = CoordinatorThreads.getExecutor();
+
+        if (executor != null) {
+            // asynchronous participant requests block a thread for the duration of the call
+            builder.executorService(executor);
+        }
+
+        poolSizePerHost = Integer.getInteger(POOL_SIZE_PER_HOST_PROPERTY, DEFAULT_POOL_SIZE_PER_HOST);
+
+        try {
+            if (builder instanceof ResteasyClientBuilder) {
+                // the pooled engine that RESTEasy builds checks idle connections before reusing them, which
+                // catches the stale keep-alive connections left in the pool when a participant restarts
+                ((ResteasyClientBuilder) builder)
+                        .connectionPoolSize(Integer.getInteger(POOL_SIZE_PROPERTY, DEFAULT_POOL_SIZE))
+                        .maxPooledPerRoute(poolSizePerHost)
+                        .connectionTTL(Long.getLong(CONNECTION_TTL_PROPERTY, DEFAULT_CONNECTION_TTL), TimeUnit.SECONDS);
+            }
+        } catch (LinkageError e) {
+            // RESTEasy is not available so use whatever pooling the JAX-RS implementation provides by default
+            if (LRALogger.logger.isDebugEnabled()) {
+                LRALogger.logger.debugf("Participant client pool cannot be configured: %s", e.getMessage());
+            }
+        }
+
+        // read each response as soon as it arrives so that its connection goes back to the pool even if the caller
+        // has stopped waiting for it (a participant that replies after the timeout) and so never closes it
+        return builder.register((ClientResponseFilter) (requestContext, responseContext) -> {
+            if (responseContext.hasEntity()) {
+                responseContext.setEntityStream(new ByteArrayInputStream(responseContext.getEntityStream().readAllBytes()));
+            }
+        }).build();
+    }
+
+    private static String hostOf(URI target) {
+        if (target == null || target.getHost() == null) {
+            return "unknown";
+        }
+
+        return target.getPort() == -1 ? target.getHost() : target.getHost() + ":" + target.getPort();
+    }
+
+    /**
+     * A request made using the shared client. Closing the lease records that the request has finished.
+     */
+    public static final class Lease implements AutoCloseable {
+        private final Client client;
+        private final HostUsage hostUsage;
+        private final CircuitBreaker.State permit; // null if the circuit breaker rejected the request
+        private volatile int status; // the HTTP status of the response, 0 until the host has responded
+        private boolean closed;
+
+        private Lease(Client client, HostUsage hostUsage, CircuitBreaker.State permit) {
+            this.client = client;
+            this.hostUsage = hostUsage;
+            this.permit = permit;
+        }
+
+        /**
+         * @return the shared client
+         * @throws ProcessingException if the circuit breaker of the host is open
+         */
+        public Client getClient() {
+            if (permit == null) {
+                throw new ProcessingException("the circuit breaker for participant host " + hostUsage.host + " is open");
+            }
+
+            return client;
+        }
+
+        /**
+         * Record the HTTP status of the response from the host.
+         *
+         * @param status the HTTP status
+         */
+        public void responded(int status) {
+            this.status = status;
+        }
+
+        /**
+         * Record that the request has finished without reporting whether the host responded.
+         */
+        @Override
+        public void close() {
+            if (!closed && permit != null) {
+                if (permit == CircuitBreaker.State.HALF_OPEN) {
+                    hostUsage.circuitBreaker.onProbeAbandoned();
+                }
+
+                hostUsage.release();
+            }
+
+            closed = true;
+        }
+
+        /**
+         * Record that the request has finished.
+         *
+         * @param failure the reason that the request failed (the host could not be reached or did not respond
+         *                in time), or null if the host responded (in which case the status that it
+         *                {@link #responded(int) responded} with decides whether the request failed)
+         */
+        public void close(Throwable failure) {
+            if (!closed && permit != null) {
+                if (CircuitBreaker.isEnabled()) {
+                    if (failure == null && !CircuitBreaker.isFailure(status)) {
+                        hostUsage.circuitBreaker.onSuccess();
+                    } else {
+                        hostUsage.circuitBreaker.onFailure();
+                    }
+                } else if (permit == CircuitBreaker.State.HALF_OPEN) {
+                    hostUsage.circuitBreaker.onProbeAbandoned(); // the breaker has been disabled
+                }
+
+                hostUsage.release();
+            }
+
+            closed = true;
+        }
+    }
+
+    /**
+     * Usage statistics of the connections to a single participant host.
+     */
+    public static final class HostUsage {
+        private final String host;
+        private final AtomicInteger inUse = new AtomicInteger();
+        private final AtomicInteger peakInUse = new AtomicInteger();
+        private final AtomicLong requests = new AtomicLong();
+        private final CircuitBreaker circuitBreaker;
+
+        private HostUsage(String host) {
+            this.host = host;
+            this.circuitBreaker = new CircuitBreaker(host);
+        }
+
+        private void acquire() {
+            int current = inUse.incrementAndGet();
+
+            requests.incrementAndGet();
+            peakInUse.accumulateAndGet(current, Math::max);
+        }
+
+        private void release() {
+            inUse.decrementAndGet();
+        }
+
+        public String getHost() {
+            return host;
+        }
+
+        /**
+         * @return the number of requests to the host that are currently in progress
+         */
+        public int getInUse() {
+            return inUse.get();
+        }
+
+        /**
+         * @return the largest number of concurrent requests to the host
+         */
+        public int getPeakInUse() {
+            return peakInUse.get();
+        }
+
+        /**
+         * @return the configured limit on the number of pooled connections to the host
+         */
+        public int getMaxPerHost() {
+            return poolSizePerHost;
+        }
+
+        /**
+         * @return the total number of requests made to the host
+         */
+        public long getRequests() {
+            return requests.get();
+        }
+
+        /**
+         * @return the circuit breaker that stops requests to the host whilst it keeps failing
+         */
+        public CircuitBreaker getCircuitBreaker() {
+            return circuitBreaker;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: inUse=%d peak=%d max=%d requests=%d circuit=%s",
+                    host, getInUse(), getPeakInUse(), getMaxPerHost(), getRequests(), circuitBreaker.getState());
+        }
+    }
+}
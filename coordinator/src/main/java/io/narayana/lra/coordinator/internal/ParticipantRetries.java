@@ -0,0 +1,227 @@
+/*
+   Copyright The Narayana Authors
+   SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.narayana.lra.coordinator.internal;
+
+import io.narayana.lra.logging.LRALogger;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides when a participant that has not finished (because it returned 202 Accepted, an error, or could not be
+ * reached) should next be asked to complete or compensate.
+ * <p>
+ * By default such participants are retried on every periodic recovery pass, whether or not they are likely to
+ * make progress. If the system property {@value #BACKOFF_PROPERTY} is true each participant instead gets its
+ * own retry schedule. The delay before the next attempt starts at {@value #INITIAL_DELAY_PROPERTY} milliseconds
+ * (1 second by default) and doubles after every attempt that does not finish the participant, up to
+ * {@value #MAX_DELAY_PROPERTY} milliseconds (5 minutes by default). A random jitter of up to half of the delay
+ * is subtracted so that participants which failed together are not all retried together. A {@code Retry-After}
+ * header in the response of the participant overrides the computed delay (it is still capped at the maximum).
+ * <p>
+ * When the delay has passed the LRA of the participant is recovered straight away, without waiting for the
+ * next recovery pass. Recovery passes skip participants whose next attempt is not due yet. The properties are
+ * read whenever a participant needs to be retried.
+ */
+public final class ParticipantRetries {
+    public static final String BACKOFF_PROPERTY = "lra.coordinator.retry.backoff";
+    public static final String INITIAL_DELAY_PROPERTY = "lra.coordinator.retry.backoff.initial";
+    public static final String MAX_DELAY_PROPERTY = "lra.coordinator.retry.backoff.max";
+
+    private static final long DEFAULT_INITIAL_DELAY_MILLIS = 1000L;
+    private static final long DEFAULT_MAX_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private static final Map<String, Retry> retries = new ConcurrentHashMap<>();
+    private static final AtomicLong scheduledCount = new AtomicLong();
+    private static final AtomicLong retryAfterCount = new AtomicLong();
+
+    private ParticipantRetries() {
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(BACKOFF_PROPERTY);
+    }
+
+    /**
+     * @param participant the recovery id of the participant
+     * @return false if the participant is backing off and should not be asked to finish yet
+     */
+    public static boolean isDue(String participant) {
+        Retry retry = retries.get(participant);
+
+        return retry == null || retry.due || System.currentTimeMillis() >= retry.dueMillis;
+    }
+
+    /**
+     * Schedule the next attempt to finish a participant.
+     *
+     * @param participant the recovery id of the participant
+     * @param retryAfter the value of the {@code Retry-After} header sent by the participant, or null
+     * @param recovery the task that makes the next attempt, it runs when the delay has passed
+     */
+    public static void retryLater(String participant, String retryAfter, Runnable recovery) {
+        retries.compute(participant, (id, previous) -> {
+            int attempts = 1;
+
+            if (previous != null) {
+                previous.timeout.cancel();
+                attempts = previous.attempts + 1;
+            }
+
+            long delay = nextDelay(attempts, retryAfter);
+            Retry retry = new Retry(attempts, System.currentTimeMillis() + delay);
+
+            retry.timeout = TimingWheel.schedule(() -> attempt(id, retry, recovery), delay);
+            scheduledCount.incrementAndGet();
+
+            if (LRALogger.logger.isTraceEnabled()) {
+                LRALogger.logger.tracef("ParticipantRetries: participant %s will be retried in %d ms (attempt %d)",
+                        id, delay, attempts + 1);
+            }
+
+            return retry;
+        });
+    }
+
+    /**
+     * Forget the retry schedule of a participant, because it has finished or no longer needs to be retried.
+     *
+     * @param participant the recovery id of the participant
+     */
+    public static void finished(String participant) {
+        Retry retry = retries.remove(participant);
+
+        if (retry != null) {
+            retry.timeout.cancel();
+        }
+    }
+
+    /**
+     * Discard every retry schedule, the participants will be retried by the next recovery pass.
+     */
+    public static void reset() {
+        retries.values().forEach(retry -> retry.timeout.cancel());
+        retries.clear();
+    }
+
+    /**
+     * @return metrics describing the participants that are waiting to be retried
+     */
+    public static RetryUsage getUsage() {
+        return new RetryUsage(retries.size(), scheduledCount.get(), retryAfterCount.get());
+    }
+
+    private static void attempt(String participant, Retry retry, Runnable recovery) {
+        retry.due = true;
+
+        try {
+            recovery.run();
+        } catch (RuntimeException e) {
+            if (LRALogger.logger.isDebugEnabled()) {
+                LRALogger.logger.debugf(e, "ParticipantRetries: retry of participant %s failed", participant);
+            }
+        } finally {
+            // if the attempt was not made (the LRA may have gone) the schedule is stale, recovery passes will retry
+            retries.remove(participant, retry);
+        }
+    }
+
+    private static long nextDelay(int attempts, String retryAfter) {
+        long max = Math.max(0L, Long.getLong(MAX_DELAY_PROPERTY, DEFAULT_MAX_DELAY_MILLIS));
+        long requested = parseRetryAfter(retryAfter);
+
+        if (requested >= 0) {
+            retryAfterCount.incrementAndGet();
+
+            return Math.min(requested, max);
+        }
+
+        long initial = Math.max(1L, Long.getLong(INITIAL_DELAY_PROPERTY, DEFAULT_INITIAL_DELAY_MILLIS));
+        // double the delay for each attempt, shifting by 62 or more bits would overflow
+        long delay = attempts > 62 || initial > (max >> (attempts - 1)) ? max : initial << (attempts - 1);
+
+        return delay - ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    // the header holds either a number of seconds or an HTTP date, return -1 if it is missing or invalid
+    static long parseRetryAfter(String retryAfter) {
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return -1L;
+        }
+
+        String value = retryAfter.trim();
+
+        try {
+            long seconds = Long.parseLong(value);
+
+            return seconds < 0 ? -1L : TimeUnit.SECONDS.toMillis(seconds);
+        } catch (NumberFormatException ignore) {
+            // it should be a date
+        }
+
+        try {
+            long at = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+
+            return Math.max(0L, at - System.currentTimeMillis());
+        } catch (DateTimeParseException e) {
+            return -1L;
+        }
+    }
+
+    private static final class Retry {
+        private final int attempts;
+        private final long dueMillis;
+        private volatile boolean due; // set when the timer has fired so that the attempt is not skipped
+        private TimingWheel.Timeout timeout;
+
+        private Retry(int attempts, long dueMillis) {
+            this.attempts = attempts;
+            this.dueMillis = dueMillis;
+        }
+    }
+
+    /**
+     * Counts of participant retries.
+     */
+    public static final class RetryUsage {
+        private final int backingOff;
+        private final long scheduled;
+        private final long retryAfter;
+
+        private RetryUsage(int backingOff, long scheduled, long retryAfter) {
+            this.backingOff = backingOff;
+            this.scheduled = scheduled;
+            this.retryAfter = retryAfter;
+        }
+
+        /**
+         * @return the number of participants that are waiting for their next attempt
+         */
+        public int getBackingOff() {
+            return backingOff;
+        }
+
+        /**
+         * @return the number of retries that have been scheduled
+         */
+        public long getScheduled() {
+            return scheduled;
+        }
+
+        /**
+         * @return the number of retries whose delay was requested by the participant using a Retry-After header
+         */
+        public long getRetryAfter() {
+            return retryAfter;
+        }
+    }
+}
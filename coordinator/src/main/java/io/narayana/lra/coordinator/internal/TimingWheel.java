@@ -0,0 +1,477 @@
+/*
+   Copyright The Narayana Authors
+   SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.narayana.lra.coordinator.internal;
+
+import io.narayana.lra.logging.LRALogger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs the tasks that cancel LRAs whose time limit has been reached, and the retries of participants that are
+ * backing off (see {@link ParticipantRetries}).
+ * <p>
+ * The timeouts are held in a hierarchical timing wheel: {@value #LEVELS} wheels of {@value #WHEEL_SIZE} slots
+ * where a slot of the first wheel covers one tick ({@value #TICK_PROPERTY} milliseconds, 10 by default) and a
+ * slot of each subsequent wheel covers a whole rotation of the previous one. Scheduling and cancelling a
+ * timeout are constant time: callers only queue the change and a single timer thread applies it at the next
+ * tick. When a slot of a higher wheel comes round its timeouts are redistributed onto the lower wheels, and
+ * the timeouts in the current slot of the first wheel expire together. The tasks of the timeouts that expire
+ * in the same tick are handed over as a batch to a pool of {@value #WORKERS_PROPERTY} worker threads (10 by
+ * default), or to virtual threads if {@link CoordinatorThreads} is using them, so that the timer thread never
+ * blocks on participants or on the object store.
+ * <p>
+ * The properties are read when the timer is first used. The backlog of the timer is reported by
+ * {@link #getUsage()}.
+ */
+public final class TimingWheel {
+    public static final String TICK_PROPERTY = "lra.coordinator.timer.tick";
+    public static final String WORKERS_PROPERTY = "lra.coordinator.timer.workers";
+
+    private static final long DEFAULT_TICK_MILLIS = 10L;
+    private static final int DEFAULT_WORKERS = 10;
+    // with the default tick the wheels span 2.56 seconds, 11 minutes, 47 hours and 497 days
+    private static final int WHEEL_BITS = 8;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private static volatile TimingWheel instance;
+
+    private final long tickNanos;
+    private final long startNanos;
+    private final Slot[][] wheels = new Slot[LEVELS][WHEEL_SIZE];
+    private final Queue<Timeout> added = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final ThreadPoolExecutor workers;
+    private final Thread thread;
+    private final AtomicLong pendingCount = new AtomicLong();
+    private final AtomicLong expiredCount = new AtomicLong();
+    private final AtomicLong cancelledCount = new AtomicLong();
+    private volatile boolean idle; // whether the timer thread is parked until a timeout is added
+    private volatile boolean stopped;
+    private volatile long lagNanos;
+    private long currentTick; // the last tick that was processed, only used by the timer thread
+    private int size; // the number of timeouts on the wheels, only used by the timer thread
+
+    private TimingWheel(long tickMillis, int workerCount) {
+        AtomicInteger workerId = new AtomicInteger();
+
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.startNanos = System.nanoTime();
+
+        for (Slot[] wheel : wheels) {
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                wheel[i] = new Slot();
+            }
+        }
+
+        workers = new ThreadPoolExecutor(workerCount, workerCount, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                task -> daemon(task, "lra-timer-worker-" + workerId.incrementAndGet()));
+        workers.allowCoreThreadTimeOut(true);
+        thread = daemon(this::run, "lra-timer");
+        thread.start();
+    }
+
+    /**
+     * Run a task once a delay has passed.
+     *
+     * @param task the task to run, it runs on a worker thread
+     * @param delayMillis how long to wait before running the task
+     * @return the timeout, which can be used to cancel the task
+     */
+    public static Timeout schedule(Runnable task, long delayMillis) {
+        return getInstance().add(task, delayMillis);
+    }
+
+    /**
+     * @return metrics describing how many timeouts are waiting and how far behind the timer is
+     */
+    public static TimerUsage getUsage() {
+        return new TimerUsage(instance);
+    }
+
+    /**
+     * Stop the timer thread and the workers, the timeouts that have not expired are discarded (recovery will
+     * cancel any LRA whose time limit passes in the meantime). A new timer is started if there is subsequent work.
+     */
+    public static void shutdown() {
+        TimingWheel wheel;
+
+        synchronized (TimingWheel.class) {
+            wheel = instance;
+            instance = null;
+        }
+
+        if (wheel != null) {
+            wheel.stopped = true;
+            LockSupport.unpark(wheel.thread);
+            wheel.workers.shutdown();
+        }
+    }
+
+    private static TimingWheel getInstance() {
+        TimingWheel wheel = instance;
+
+        if (wheel == null) {
+            synchronized (TimingWheel.class) {
+                wheel = instance;
+
+                if (wheel == null) {
+                    long tickMillis = Math.max(1L, Long.getLong(TICK_PROPERTY, DEFAULT_TICK_MILLIS));
+                    int workerCount = Math.max(1, Integer.getInteger(WORKERS_PROPERTY, DEFAULT_WORKERS));
+
+                    instance = wheel = new TimingWheel(tickMillis, workerCount);
+                }
+            }
+        }
+
+        return wheel;
+    }
+
+    private static Thread daemon(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+
+        thread.setDaemon(true);
+
+        return thread;
+    }
+
+    private Timeout add(Runnable task, long delayMillis) {
+        long elapsed = System.nanoTime() - startNanos;
+        // toNanos saturates and the deadline is capped so that very long delays (such as Long.MAX_VALUE) do not overflow
+        long delay = Math.min(TimeUnit.MILLISECONDS.toNanos(Math.max(0L, delayMillis)), Long.MAX_VALUE - elapsed - tickNanos);
+        // round up so that a task never runs early
+        Timeout timeout = new Timeout(this, task, (elapsed + delay + tickNanos - 1) / tickNanos);
+
+        pendingCount.incrementAndGet();
+        added.add(timeout);
+
+        if (idle) {
+            LockSupport.unpark(thread);
+        }
+
+        return timeout;
+    }
+
+    private void run() {
+        while (!stopped) {
+            long tick = (System.nanoTime() - startNanos) / tickNanos;
+
+            if (tick <= currentTick) {
+                waitForNextTick();
+                continue;
+            }
+
+            if (size == 0) {
+                // nothing can expire in the ticks that have passed so there is no need to process them
+                currentTick = tick - 1;
+            }
+
+            lagNanos = (tick - currentTick - 1) * tickNanos;
+
+            List<Runnable> batch = new ArrayList<>();
+
+            while (currentTick < tick) {
+                advance(batch);
+            }
+
+            dispatch(batch);
+        }
+    }
+
+    private void waitForNextTick() {
+        if (size == 0 && added.isEmpty()) {
+            idle = true;
+
+            // check again since a timeout may have been added before idle was set
+            if (added.isEmpty() && !stopped) {
+                LockSupport.park(this);
+            }
+
+            idle = false;
+        } else {
+            long sleepNanos = startNanos + (currentTick + 1) * tickNanos - System.nanoTime();
+
+            if (sleepNanos > 0) {
+                LockSupport.parkNanos(this, sleepNanos);
+            }
+        }
+    }
+
+    // process the next tick, the tasks of the timeouts that expire are added to the batch
+    private void advance(List<Runnable> batch) {
+        Timeout timeout;
+
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.slot != null) {
+                timeout.slot.remove(timeout);
+                size -= 1;
+            }
+        }
+
+        while ((timeout = added.poll()) != null) {
+            place(timeout, batch);
+        }
+
+        currentTick += 1;
+
+        // redistribute the slots of the higher wheels that have come round, highest first
+        for (int level = LEVELS - 1; level > 0; level--) {
+            int shift = WHEEL_BITS * level;
+
+            if ((currentTick & ((1L << shift) - 1)) == 0) {
+                replace(wheels[level][(int) ((currentTick >>> shift) & WHEEL_MASK)], batch);
+            }
+        }
+
+        replace(wheels[0][(int) (currentTick & WHEEL_MASK)], batch);
+    }
+
+    // take the timeouts out of a slot and put them back on the wheel, which expires any that are due
+    private void replace(Slot slot, List<Runnable> batch) {
+        Timeout timeout = slot.clear();
+
+        while (timeout != null) {
+            Timeout next = timeout.next;
+
+            timeout.next = null;
+            timeout.prev = null;
+            timeout.slot = null;
+            size -= 1;
+
+            place(timeout, batch);
+            timeout = next;
+        }
+    }
+
+    private void place(Timeout timeout, List<Runnable> batch) {
+        if (timeout.state.get() != PENDING) {
+            return; // it was cancelled
+        }
+
+        long delta = timeout.deadlineTick - currentTick;
+
+        if (delta <= 0) {
+            if (timeout.state.compareAndSet(PENDING, EXPIRED)) {
+                pendingCount.decrementAndGet();
+                expiredCount.incrementAndGet();
+                batch.add(timeout.task);
+            }
+
+            return;
+        }
+
+        int level = 0;
+
+        // the top wheel also holds the timeouts that are beyond its span, they are placed again when their slot comes round
+        while (level < LEVELS - 1 && (delta >>> (WHEEL_BITS * (level + 1))) != 0) {
+            level++;
+        }
+
+        wheels[level][(int) ((timeout.deadlineTick >>> (WHEEL_BITS * level)) & WHEEL_MASK)].add(timeout);
+        size += 1;
+    }
+
+    private void dispatch(List<Runnable> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        if (batch.size() > 1 && LRALogger.logger.isTraceEnabled()) {
+            LRALogger.logger.tracef("TimingWheel: %d timeouts expired", batch.size());
+        }
+
+        Executor executor = CoordinatorThreads.getExecutor();
+
+        if (executor == null) {
+            executor = workers;
+        }
+
+        for (Runnable task : batch) {
+            try {
+                executor.execute(() -> runTask(task));
+            } catch (RejectedExecutionException e) {
+                // the timer is being shut down, recovery will cancel the LRA
+                if (LRALogger.logger.isDebugEnabled()) {
+                    LRALogger.logger.debugf("TimingWheel: an expired timeout was rejected (%s)", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void runTask(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            // the task has logged the failure, if it did not cancel the LRA then recovery will
+            if (LRALogger.logger.isDebugEnabled()) {
+                LRALogger.logger.debug("TimingWheel: timeout task failed", e);
+            }
+        }
+    }
+
+    /**
+     * A task that is waiting for its delay to pass.
+     */
+    public static final class Timeout {
+        private final TimingWheel wheel;
+        private final Runnable task;
+        private final long deadlineTick;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        // the slot that holds the timeout, only used by the timer thread
+        private Slot slot;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(TimingWheel wheel, Runnable task, long deadlineTick) {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+
+        /**
+         * Stop the task from running if it has not already been handed to a worker.
+         *
+         * @return true if the task will not run
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(PENDING, CANCELLED)) {
+                return false;
+            }
+
+            wheel.pendingCount.decrementAndGet();
+            wheel.cancelledCount.incrementAndGet();
+            wheel.cancelled.add(this); // the timer thread takes it off the wheel
+
+            return true;
+        }
+    }
+
+    // a doubly linked list of timeouts, only used by the timer thread
+    private static final class Slot {
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(Timeout timeout) {
+            timeout.slot = this;
+            timeout.prev = tail;
+
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+
+            tail = timeout;
+        }
+
+        private void remove(Timeout timeout) {
+            if (timeout.prev == null) {
+                head = timeout.next;
+            } else {
+                timeout.prev.next = timeout.next;
+            }
+
+            if (timeout.next == null) {
+                tail = timeout.prev;
+            } else {
+                timeout.next.prev = timeout.prev;
+            }
+
+            timeout.slot = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+
+        // empty the slot and return the first of the timeouts that it held
+        private Timeout clear() {
+            Timeout first = head;
+
+            head = null;
+            tail = null;
+
+            return first;
+        }
+    }
+
+    /**
+     * A snapshot of the backlog of the timer.
+     */
+    public static final class TimerUsage {
+        private final long pending;
+        private final long expired;
+        private final long cancelled;
+        private final int workerBacklog;
+        private final int activeWorkers;
+        private final long lagMillis;
+
+        private TimerUsage(TimingWheel wheel) {
+            pending = wheel == null ? 0L : wheel.pendingCount.get();
+            expired = wheel == null ? 0L : wheel.expiredCount.get();
+            cancelled = wheel == null ? 0L : wheel.cancelledCount.get();
+            workerBacklog = wheel == null ? 0 : wheel.workers.getQueue().size();
+            activeWorkers = wheel == null ? 0 : wheel.workers.getActiveCount();
+            lagMillis = wheel == null ? 0L : TimeUnit.NANOSECONDS.toMillis(wheel.lagNanos);
+        }
+
+        /**
+         * @return the number of timeouts that are waiting for their delay to pass
+         */
+        public long getPending() {
+            return pending;
+        }
+
+        /**
+         * @return the number of timeouts that have expired since the timer was started
+         */
+        public long getExpired() {
+            return expired;
+        }
+
+        /**
+         * @return the number of timeouts that have been cancelled since the timer was started
+         */
+        public long getCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * @return the number of expired timeouts whose tasks are waiting for a worker
+         */
+        public int getWorkerBacklog() {
+            return workerBacklog;
+        }
+
+        /**
+         * @return the number of workers that are running tasks
+         */
+        public int getActiveWorkers() {
+            return activeWorkers;
+        }
+
+        /**
+         * @return how far the timer thread was behind the clock the last time that it processed a tick
+         */
+        public long getLagMillis() {
+            return lagMillis;
+        }
+    }
+}
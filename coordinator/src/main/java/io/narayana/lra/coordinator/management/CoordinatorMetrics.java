@@ -0,0 +1,62 @@
+/*
+   Copyright The Narayana Authors
+   SPDX-License-Identifier: Apache-2.0
+ */
+package io.narayana.lra.coordinator.management;
+
+import com.arjuna.ats.arjuna.tools.osb.util.JMXServer;
+import io.narayana.lra.coordinator.internal.ParticipantClient;
+import io.narayana.lra.coordinator.internal.ParticipantRetries;
+import io.narayana.lra.coordinator.internal.TimingWheel;
+import io.narayana.lra.logging.LRALogger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.util.Map;
+
+public class CoordinatorMetrics implements CoordinatorMetricsMXBean {
+    public static final String OBJECT_NAME = "jboss.narayana.lra:type=CoordinatorMetrics";
+
+    private static boolean registered;
+
+    public static synchronized void register() {
+        if (!registered) {
+            try {
+                JMXServer.getAgent().getServer().registerMBean(new CoordinatorMetrics(), new ObjectName(OBJECT_NAME));
+                registered = true;
+            } catch (JMException e) {
+                LRALogger.logger.debugf(e, "Unable to register the coordinator metrics MBean %s", OBJECT_NAME);
+            }
+        }
+    }
+
+    public static synchronized void unregister() {
+        if (registered) {
+            try {
+                MBeanServer server = JMXServer.getAgent().getServer();
+
+                server.unregisterMBean(new ObjectName(OBJECT_NAME));
+            } catch (JMException e) {
+                LRALogger.logger.debugf(e, "Unable to unregister the coordinator metrics MBean %s", OBJECT_NAME);
+            }
+
+            registered = false;
+        }
+    }
+
+    @Override
+    public Map<String, ParticipantClient.HostUsage> getParticipantClientUsage() {
+        return ParticipantClient.getPoolUsage();
+    }
+
+    @Override
+    public TimingWheel.TimerUsage getTimerUsage() {
+        return TimingWheel.getUsage();
+    }
+
+    @Override
+    public ParticipantRetries.RetryUsage getRetryUsage() {
+        return ParticipantRetries.getUsage();
+    }
+}
@@ -0,0 +1,32 @@
+/*
+   Copyright The Narayana Authors
+   SPDX-License-Identifier: Apache-2.0
+ */
+package io.narayana.lra.coordinator.management;
+
+import io.narayana.lra.coordinator.internal.ParticipantClient;
+import io.narayana.lra.coordinator.internal.ParticipantRetries;
+import io.narayana.lra.coordinator.internal.TimingWheel;
+
+import java.util.Map;
+
+/**
+ * Runtime metrics of the LRA coordinator, registered under the name {@value CoordinatorMetrics#OBJECT_NAME}
+ */
+public interface CoordinatorMetricsMXBean {
+    /**
+     * @return usage of the pooled client that the coordinator uses to call participants, and the state of the
+     * circuit breaker of each participant host, keyed by host
+     */
+    Map<String, ParticipantClient.HostUsage> getParticipantClientUsage();
+
+    /**
+     * @return the backlog of the timer that cancels LRAs when their time limit is reached
+     */
+    TimingWheel.TimerUsage getTimerUsage();
+
+    /**
+     * @return counts of the participants that are backing off before they are asked to finish again
+     */
+    ParticipantRetries.RetryUsage getRetryUsage();
+}
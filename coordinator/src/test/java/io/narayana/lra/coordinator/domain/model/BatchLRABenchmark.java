@@ -0,0 +1,122 @@
+/*
+   Copyright The Narayana Authors
+   SPDX-License-Identifier: Apache-2.0
+ */
+package io.narayana.lra.coordinator.domain.model;
+
+import static io.narayana.lra.LRAConstants.COORDINATOR_PATH_NAME;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URI;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.resteasy.plugins.server.undertow.UndertowJaxrsServer;
+import org.jboss.resteasy.test.TestPortProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+import io.narayana.lra.LRABatchResult;
+import io.narayana.lra.client.internal.NarayanaLRAClient;
+import io.narayana.lra.coordinator.api.Coordinator;
+import jakarta.ws.rs.ApplicationPath;
+import jakarta.ws.rs.core.Application;
+
+/**
+ * Measures how long it takes a client to start and then close a number of LRAs using one request per LRA,
+ * compared with sending them to the coordinator in batches. Benchmarks are not part of the normal build, run
+ * them using {@code mvn test -Pbenchmark}.
+ */
+public class BatchLRABenchmark extends LRATestBase {
+    private static final int LRA_COUNT = Integer.getInteger("benchmark.lra.count", 1000);
+    private static final int[] BATCH_SIZES = {10, 100, 1000};
+
+    @Rule
+    public TestName testName = new TestName();
+    private NarayanaLRAClient lraClient;
+
+    @ApplicationPath("/")
+    public static class LRACoordinator extends Application {
+        @Override
+        public Set<Class<?>> getClasses() {
+            HashSet<Class<?>> classes = new HashSet<>();
+            classes.add(Coordinator.class);
+            return classes;
+        }
+    }
+
+    @BeforeClass
+    public static void start() {
+        System.setProperty("lra.coordinator.url", TestPortProvider.generateURL('/' + COORDINATOR_PATH_NAME));
+    }
+
+    @Before
+    public void before() {
+        clearObjectStore(testName);
+        server = new UndertowJaxrsServer().start();
+        server.deploy(LRACoordinator.class);
+        lraClient = new NarayanaLRAClient();
+    }
+
+    @After
+    public void after() {
+        lraClient.close();
+        clearObjectStore(testName);
+        server.stop();
+    }
+
+    @Test
+    public void startAndCloseDuration() {
+        singleRequests(); // warm up
+        batches(BATCH_SIZES[0]);
+
+        System.out.printf("start and close %d LRAs:%n", LRA_COUNT);
+        System.out.printf("  one request per LRA: %d ms%n", singleRequests());
+
+        for (int batchSize : BATCH_SIZES) {
+            System.out.printf("  batches of %4d LRAs: %d ms%n", batchSize, batches(batchSize));
+        }
+    }
+
+    private long singleRequests() {
+        long start = System.nanoTime();
+
+        for (int i = 0; i < LRA_COUNT; i++) {
+            URI lraId = lraClient.startLRA(testName.getMethodName());
+
+            lraClient.closeLRA(lraId);
+        }
+
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private long batches(int batchSize) {
+        long start = System.nanoTime();
+
+        for (int done = 0; done < LRA_COUNT; done += batchSize) {
+            int count = Math.min(batchSize, LRA_COUNT - done);
+            List<LRABatchResult> started = lraClient.startLRAs(null, testName.getMethodName(), 0L, ChronoUnit.SECONDS, count);
+            List<URI> lraIds = new ArrayList<>(count);
+
+            for (LRABatchResult result : started) {
+                assertTrue("the LRA should have started: " + result, result.isSuccessful());
+                lraIds.add(result.getLraId());
+            }
+
+            List<LRABatchResult> closed = lraClient.closeLRAs(lraIds);
+
+            assertEquals("every LRA should have closed", count, closed.stream().filter(LRABatchResult::isSuccessful).count());
+        }
+
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,157 @@
+/*
+   Copyright The Narayana Authors
+   SPDX-License-Identifier: Apache-2.0
+ */
+package io.narayana.lra.coordinator.domain.model;
+
+import static io.narayana.lra.LRAConstants.COORDINATOR_PATH_NAME;
+import static org.junit.Assert.assertEquals;
+
+import java.net.URI;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.microprofile.lra.annotation.ParticipantStatus;
+import org.jboss.resteasy.plugins.server.undertow.UndertowJaxrsServer;
+import org.jboss.resteasy.test.TestPortProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+import io.narayana.lra.client.internal.NarayanaLRAClient;
+import io.narayana.lra.coordinator.api.Coordinator;
+import io.narayana.lra.coordinator.internal.CoordinatorThreads;
+import io.narayana.lra.coordinator.internal.ParticipantClient;
+import jakarta.ws.rs.ApplicationPath;
+import jakarta.ws.rs.PUT;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.core.Application;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Compares how quickly the coordinator cancels LRAs whose time limit has passed when the participants are
+ * slow to compensate, using the default platform threads and then using virtual threads (see
+ * {@link CoordinatorThreads}). Benchmarks are not part of the normal build, run them using
+ * {@code mvn test -Pbenchmark}. Virtual threads need Java 21 or later, on older JVMs both runs use
+ * platform threads.
+ */
+public class CoordinatorThreadsBenchmark extends LRATestBase {
+    private static final int LRA_COUNT = Integer.getInteger("benchmark.lra.count", 100);
+    private static final long COMPENSATE_DELAY_MS = Long.getLong("benchmark.compensate.delay", 50L);
+    private static final long SETUP_MS = 5000L; // time allowed for starting the LRAs before they all time out
+    private static final AtomicInteger compensations = new AtomicInteger();
+
+    @Rule
+    public TestName testName = new TestName();
+    private NarayanaLRAClient lraClient;
+
+    @Path("/slow")
+    public static class SlowParticipant {
+        @PUT
+        @Path("/compensate")
+        public Response compensate() throws InterruptedException {
+            TimeUnit.MILLISECONDS.sleep(COMPENSATE_DELAY_MS);
+            compensations.incrementAndGet();
+            return Response.ok(ParticipantStatus.Compensated.name()).build();
+        }
+
+        @PUT
+        @Path("/complete")
+        public Response complete() {
+            return Response.ok(ParticipantStatus.Completed.name()).build();
+        }
+    }
+
+    @ApplicationPath("/")
+    public static class LRACoordinator extends Application {
+        @Override
+        public Set<Class<?>> getClasses() {
+            HashSet<Class<?>> classes = new HashSet<>();
+            classes.add(Coordinator.class);
+            return classes;
+        }
+    }
+
+    @ApplicationPath("/participant")
+    public static class ParticipantApp extends Application {
+        @Override
+        public Set<Class<?>> getClasses() {
+            HashSet<Class<?>> classes = new HashSet<>();
+            classes.add(SlowParticipant.class);
+            return classes;
+        }
+    }
+
+    @BeforeClass
+    public static void start() {
+        System.setProperty("lra.coordinator.url", TestPortProvider.generateURL('/' + COORDINATOR_PATH_NAME));
+    }
+
+    @Before
+    public void before() {
+        clearObjectStore(testName);
+        server = new UndertowJaxrsServer().start();
+        server.deploy(LRACoordinator.class);
+        server.deployOldStyle(ParticipantApp.class);
+        lraClient = new NarayanaLRAClient();
+    }
+
+    @After
+    public void after() {
+        System.clearProperty(CoordinatorThreads.VIRTUAL_THREADS_PROPERTY);
+        lraClient.close();
+        clearObjectStore(testName);
+        server.stop();
+    }
+
+    @Test
+    public void timeoutCancellationThroughput() {
+        double platform = cancelOnTimeout(false);
+        double virtual = cancelOnTimeout(true);
+
+        System.out.printf("%d LRAs with a participant that takes %d ms to compensate:%n", LRA_COUNT, COMPENSATE_DELAY_MS);
+        System.out.printf("  platform threads: %.1f cancellations/s%n", platform);
+        System.out.printf("  virtual threads:  %.1f cancellations/s (%s)%n", virtual,
+                CoordinatorThreads.isVirtual() ? "enabled" : "not supported by this JVM");
+    }
+
+    // start LRA_COUNT LRAs that all time out together and return the rate at which they are cancelled
+    private double cancelOnTimeout(boolean virtual) {
+        System.setProperty(CoordinatorThreads.VIRTUAL_THREADS_PROPERTY, Boolean.toString(virtual));
+        ParticipantClient.close(); // the shared client picks up the thread mode when it is next created
+        compensations.set(0);
+
+        URI participant = URI.create(TestPortProvider.generateURL("/participant/slow"));
+        long deadline = System.currentTimeMillis() + SETUP_MS;
+
+        for (int i = 0; i < LRA_COUNT; i++) {
+            URI lraId = lraClient.startLRA(null, testName.getMethodName(),
+                    Math.max(1L, deadline - System.currentTimeMillis()), ChronoUnit.MILLIS);
+
+            lraClient.joinLRA(lraId, 0L, participant, null);
+        }
+
+        long waitUntil = deadline + TimeUnit.MINUTES.toMillis(1);
+
+        while (compensations.get() < LRA_COUNT && System.currentTimeMillis() < waitUntil) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        long elapsed = Math.max(1L, System.currentTimeMillis() - deadline);
+
+        assertEquals("not every LRA was cancelled", LRA_COUNT, compensations.get());
+
+        return LRA_COUNT * 1000.0 / elapsed;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+   Copyright The Narayana Authors
+   SPDX-License-Identifier: Apache-2.0
+ */
+package io.narayana.lra.coordinator.domain.model;
+
+import static io.narayana.lra.LRAConstants.COORDINATOR_PATH_NAME;
+import static org.junit.Assert.assertEquals;
+
+import java.net.URI;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.microprofile.lra.annotation.ParticipantStatus;
+import org.jboss.byteman.contrib.bmunit.BMRule;
+import org.jboss.byteman.contrib.bmunit.BMRules;
+import org.jboss.byteman.contrib.bmunit.BMUnitRunner;
+import org.jboss.resteasy.plugins.server.undertow.UndertowJaxrsServer;
+import org.jboss.resteasy.test.TestPortProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+import org.junit.runner.RunWith;
+
+import io.narayana.lra.client.internal.NarayanaLRAClient;
+import io.narayana.lra.coordinator.api.Coordinator;
+import jakarta.ws.rs.ApplicationPath;
+import jakarta.ws.rs.PUT;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.core.Application;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Counts the writes (and removals) of the log record of an LRA that happen while it is closed or cancelled,
+ * for LRAs with 1, 10 and 100 participants. The store calls are counted using Byteman. Benchmarks are not part
+ * of the normal build, run them using {@code mvn test -Pbenchmark}.
+ */
+@RunWith(BMUnitRunner.class)
+public class EndWritesBenchmark extends LRATestBase {
+    private static final int[] PARTICIPANT_COUNTS = {1, 10, 100};
+    private static final int ROUNDS = Integer.getInteger("benchmark.rounds", 5);
+    static final AtomicInteger writes = new AtomicInteger();
+    static final AtomicInteger removes = new AtomicInteger();
+
+    @Rule
+    public TestName testName = new TestName();
+    private NarayanaLRAClient lraClient;
+
+    @Path("/ending")
+    public static class EndingParticipant {
+        @PUT
+        @Path("/compensate")
+        public Response compensate() {
+            return Response.ok(ParticipantStatus.Compensated.name()).build();
+        }
+
+        @PUT
+        @Path("/complete")
+        public Response complete() {
+            return Response.ok(ParticipantStatus.Completed.name()).build();
+        }
+    }
+
+    @ApplicationPath("/")
+    public static class LRACoordinator extends Application {
+        @Override
+        public Set<Class<?>> getClasses() {
+            HashSet<Class<?>> classes = new HashSet<>();
+            classes.add(Coordinator.class);
+            return classes;
+        }
+    }
+
+    @ApplicationPath("/participant")
+    public static class ParticipantApp extends Application {
+        @Override
+        public Set<Class<?>> getClasses() {
+            HashSet<Class<?>> classes = new HashSet<>();
+            classes.add(EndingParticipant.class);
+            return classes;
+        }
+    }
+
+    @BeforeClass
+    public static void start() {
+        System.setProperty("lra.coordinator.url", TestPortProvider.generateURL('/' + COORDINATOR_PATH_NAME));
+    }
+
+    @Before
+    public void before() {
+        clearObjectStore(testName);
+        server = new UndertowJaxrsServer().start();
+        server.deploy(LRACoordinator.class);
+        server.deployOldStyle(ParticipantApp.class);
+        lraClient = new NarayanaLRAClient();
+    }
+
+    @After
+    public void after() {
+        lraClient.close();
+        clearObjectStore(testName);
+        server.stop();
+    }
+
+    @Test
+    @BMRules(rules = {
+            @BMRule(name = "count LRA record writes",
+                    targetClass = "^com.arjuna.ats.arjuna.objectstore.ParticipantStore", isInterface = true,
+                    targetMethod = "write_committed",
+                    condition = "$2.equals(io.narayana.lra.coordinator.domain.model.LongRunningAction.getType())",
+                    action = "io.narayana.lra.coordinator.domain.model.EndWritesBenchmark.writes.incrementAndGet()"),
+            @BMRule(name = "count LRA record removals",
+                    targetClass = "^com.arjuna.ats.arjuna.objectstore.ParticipantStore", isInterface = true,
+                    targetMethod = "remove_committed",
+                    condition = "$2.equals(io.narayana.lra.coordinator.domain.model.LongRunningAction.getType())",
+                    action = "io.narayana.lra.coordinator.domain.model.EndWritesBenchmark.removes.incrementAndGet()")
+    })
+    public void storeWritesPerEnd() {
+        System.out.println("store operations on the LRA record per close / cancel:");
+
+        for (int participantCount : PARTICIPANT_COUNTS) {
+            System.out.printf("  %3d participants: close %s, cancel %s%n", participantCount,
+                    endLRAs(participantCount, false), endLRAs(participantCount, true));
+        }
+    }
+
+    // end ROUNDS LRAs that each have participantCount participants and describe the mean number of store operations
+    private String endLRAs(int participantCount, boolean cancel) {
+        String participant = TestPortProvider.generateURL("/participant/ending");
+        int writeCount = 0;
+        int removeCount = 0;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            URI lraId = lraClient.startLRA(testName.getMethodName());
+
+            for (int i = 0; i < participantCount; i++) {
+                lraClient.joinLRA(lraId, 0L,
+                        URI.create(participant + "/compensate?instance=" + i), URI.create(participant + "/complete?instance=" + i),
+                        null, null, null, null, (String) null);
+            }
+
+            writes.set(0);
+            removes.set(0);
+
+            if (cancel) {
+                lraClient.cancelLRA(lraId);
+            } else {
+                lraClient.closeLRA(lraId);
+            }
+
+            writeCount += writes.get();
+            removeCount += removes.get();
+        }
+
+        assertEquals("every LRA should have been removed from the store once it finished", ROUNDS, removeCount);
+
+        return String.format("%.1f writes + %.1f removals", (double) writeCount / ROUNDS, (double) removeCount / ROUNDS);
+    }
+}
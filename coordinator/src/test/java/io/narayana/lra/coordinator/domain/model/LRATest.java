@@ -26,20 +26,36 @@ import java.net.URISyntaxException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import com.arjuna.ats.arjuna.common.Uid;
 import com.arjuna.ats.arjuna.exceptions.ObjectStoreException;
+import com.arjuna.ats.arjuna.objectstore.RecoveryStore;
+import com.arjuna.ats.arjuna.objectstore.StoreManager;
+import com.arjuna.ats.arjuna.state.InputObjectState;
+import com.arjuna.ats.arjuna.state.OutputObjectState;
+import com.arjuna.ats.arjuna.tools.osb.util.JMXServer;
+import com.arjuna.ats.internal.arjuna.common.UidHelper;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.narayana.lra.Current;
+import io.narayana.lra.LRABatchOperation;
+import io.narayana.lra.LRABatchResult;
 import io.narayana.lra.LRAConstants;
 import jakarta.ws.rs.ServiceUnavailableException;
 import org.eclipse.microprofile.lra.annotation.LRAStatus;
@@ -61,10 +77,18 @@ import org.junit.Test;
 import org.junit.rules.TestName;
 
 import io.narayana.lra.LRAData;
+import io.narayana.lra.client.internal.LRAStatusCache;
 import io.narayana.lra.client.internal.NarayanaLRAClient;
 import io.narayana.lra.coordinator.api.Coordinator;
 import io.narayana.lra.coordinator.domain.service.LRAService;
+import io.narayana.lra.coordinator.internal.CircuitBreaker;
+import io.narayana.lra.coordinator.internal.CoordinatorThreads;
+import io.narayana.lra.coordinator.internal.FailedLRACatalogue;
 import io.narayana.lra.coordinator.internal.LRARecoveryModule;
+import io.narayana.lra.coordinator.internal.ParticipantClient;
+import io.narayana.lra.coordinator.internal.ParticipantRetries;
+import io.narayana.lra.coordinator.internal.TimingWheel;
+import io.narayana.lra.coordinator.management.CoordinatorMetrics;
 import io.narayana.lra.filter.ServerLRAFilter;
 import io.narayana.lra.logging.LRALogger;
 import io.narayana.lra.provider.ParticipantStatusOctetStreamProvider;
@@ -79,12 +103,17 @@ import jakarta.ws.rs.core.Application;
 import jakarta.ws.rs.core.Link;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriBuilder;
 import org.junit.runner.RunWith;
 
+import javax.management.ObjectName;
+
 @RunWith(BMUnitRunner.class)
 public class LRATest extends LRATestBase {
     static final String LRA_API_VERSION_HEADER_NAME = "Narayana-LRA-API-version";
     static final String RECOVERY_HEADER_NAME = "Long-Running-Action-Recovery";
+    static final AtomicInteger recoveredLRAs = new AtomicInteger();
+    static final AtomicInteger failedLRAsRead = new AtomicInteger();
     private static LRAService service;
 
     private NarayanaLRAClient lraClient;
@@ -103,6 +132,10 @@ public class LRATest extends LRATestBase {
             classes.add(Participant.class);
             classes.add(Participant1.class);
             classes.add(Participant2.class);
+            classes.add(BusyParticipant.class);
+            classes.add(FailingParticipant.class);
+            classes.add(SlowParticipant.class);
+            classes.add(UnavailableParticipant.class);
             classes.add(AfterLRAListener.class);
             classes.add(ServerLRAFilter.class);
             classes.add(ParticipantStatusOctetStreamProvider.class);
@@ -160,6 +193,9 @@ public class LRATest extends LRATestBase {
 
         lraClient.close();
         client.close();
+        // the participants are redeployed on a new server for each test so make sure that the coordinator
+        // does not reuse a pooled connection to the previous server
+        ParticipantClient.close();
         clearObjectStore(testName);
         server.stop();
     }
@@ -296,11 +332,826 @@ public class LRATest extends LRATestBase {
         participantCallbackOrder(false);
     }
 
+    /*
+     * verify that every participant is ended when the coordinator notifies them in parallel
+     */
+    @Test
+    public void testParallelEndModeWithCancel() {
+        parallelEndMode(true);
+    }
+
+    @Test
+    public void testParallelEndModeWithClose() {
+        parallelEndMode(false);
+    }
+
+    void parallelEndMode(boolean cancel) {
+        String previous = System.setProperty(EndMode.END_MODE_PROPERTY, EndMode.PARALLEL.name());
+
+        try {
+            queue.clear();
+
+            URI lraId = lraClient.startLRA(testName.getMethodName());
+
+            enlistParticipants(lraId, cancel);
+
+            if (cancel) {
+                lraClient.cancelLRA(lraId);
+            } else {
+                lraClient.closeLRA(lraId);
+            }
+
+            assertEquals("both participants should have been ended", 2, queue.size());
+            assertTrue("participant1 should have been ended", queue.contains(1));
+            assertTrue("participant2 should have been ended", queue.contains(2));
+            assertTrue("the LRA should have finished", isFinished(lraId));
+
+            queue.clear();
+        } finally {
+            if (previous == null) {
+                System.clearProperty(EndMode.END_MODE_PROPERTY);
+            } else {
+                System.setProperty(EndMode.END_MODE_PROPERTY, previous);
+            }
+        }
+    }
+
+    /*
+     * verify that participant callbacks go through the shared participant client and that its usage is reported
+     */
+    @Test
+    public void testParticipantClientUsage() throws Exception {
+        URI lraId = lraClient.startLRA(testName.getMethodName());
+
+        enlistParticipants(lraId, false);
+        lraClient.closeLRA(lraId);
+        queue.clear();
+
+        String host = String.format("%s:%d", TestPortProvider.getHost(), TestPortProvider.getPort());
+        ParticipantClient.HostUsage usage = ParticipantClient.getPoolUsage().get(host);
+
+        assertNotNull("no participant client usage was recorded for " + host, usage);
+        assertTrue("participant client requests were not counted", usage.getRequests() >= 2);
+        assertEquals("participant client leases were not released", 0, usage.getInUse());
+
+        CoordinatorMetrics.register();
+        Object attribute = JMXServer.getAgent().getServer()
+                .getAttribute(new ObjectName(CoordinatorMetrics.OBJECT_NAME), "ParticipantClientUsage");
+        assertNotNull("participant client usage should be available through JMX", attribute);
+    }
+
+    /*
+     * verify that LRAs are cancelled by the timing wheel when their time limit is reached, that closing an LRA
+     * cancels its timeout and that the backlog of the timer is reported
+     */
+    @Test
+    public void testTimerUsage() throws Exception {
+        int count = 20;
+        TimingWheel.TimerUsage before = TimingWheel.getUsage();
+        List<URI> expiring = new ArrayList<>();
+        List<URI> closing = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            closing.add(lraClient.startLRA(null, testName.getMethodName(), 1L, ChronoUnit.HOURS));
+            lraClient.clearCurrent(false);
+        }
+
+        assertTrue("the time limits should be waiting to expire",
+                TimingWheel.getUsage().getPending() >= before.getPending() + count);
+
+        for (int i = 0; i < count; i++) {
+            expiring.add(lraClient.startLRA(null, testName.getMethodName(), 200L, ChronoUnit.MILLIS));
+            lraClient.clearCurrent(false);
+        }
+
+        closing.forEach(lraClient::closeLRA);
+
+        assertTrue("closing an LRA should cancel its time limit",
+                TimingWheel.getUsage().getCancelled() >= before.getCancelled() + count);
+
+        long deadline = System.currentTimeMillis() + 10_000L;
+
+        while (TimingWheel.getUsage().getExpired() < before.getExpired() + count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50L);
+        }
+
+        assertTrue("the time limits should have expired",
+                TimingWheel.getUsage().getExpired() >= before.getExpired() + count);
+
+        for (URI lraId : expiring) {
+            LRAStatus status = getStatus(lraId);
+
+            // the timer hands the cancellation to a worker so it may still be in progress
+            assertTrue("the LRA should have been cancelled when its time limit was reached: " + status,
+                    status == null || status == LRAStatus.Cancelling || status == LRAStatus.Cancelled);
+        }
+
+        CoordinatorMetrics.register();
+        Object attribute = JMXServer.getAgent().getServer()
+                .getAttribute(new ObjectName(CoordinatorMetrics.OBJECT_NAME), "TimerUsage");
+        assertNotNull("the timer usage should be available through JMX", attribute);
+    }
+
+    /*
+     * verify that an LRA can be found using a URI that names the coordinator differently from the LRA id
+     */
+    @Test
+    public void testGetTransactionByAlias() {
+        URI lraId = lraClient.startLRA(testName.getMethodName());
+        URI alias = UriBuilder.fromUri(lraId).host("127.0.0.1".equals(lraId.getHost()) ? "localhost" : "127.0.0.1").build();
+
+        assertNotEquals(lraId, alias);
+        assertEquals("the LRA should be found by its uid", lraId, service.getTransaction(alias).getId());
+
+        lraClient.closeLRA(lraId);
+
+        assertNull("a finished LRA should not be found by its uid", service.lookupTransaction(alias));
+    }
+
+    /*
+     * verify that a participant can be looked up by its recovery URL until the LRA has finished
+     */
+    @Test
+    public void testGetParticipantByRecoveryId() {
+        URI lraId = lraClient.startLRA(testName.getMethodName());
+        URI participant = URI.create(TestPortProvider.generateURL("/base/participant1"));
+        URI recoveryUrl = lraClient.joinLRA(lraId, 0L, participant, null);
+
+        try (Response response = client.target(recoveryUrl).request().get()) {
+            assertEquals("the recovery URL should resolve to the participant",
+                    OK.getStatusCode(), response.getStatus());
+            assertThat("the recovery URL should resolve to the participant",
+                    response.readEntity(String.class), containsString(participant.toASCIIString()));
+        }
+
+        lraClient.closeLRA(lraId);
+        queue.clear();
+
+        assertNull("the participant of a finished LRA should not be found",
+                service.getParticipant(recoveryUrl.toASCIIString()));
+    }
+
+    /*
+     * verify that a recovery pass does not read the log of an LRA that is still active in this coordinator
+     */
+    @Test
+    @BMRules(rules = {
+            @BMRule(name = "count LRAs read from the store by recovery",
+                    targetClass = "io.narayana.lra.coordinator.internal.RecoveringLRA",
+                    targetMethod = "<init>",
+                    action = "io.narayana.lra.coordinator.domain.model.LRATest.recoveredLRAs.incrementAndGet()")
+    })
+    public void testRecoverySkipsActiveLRAs() {
+        URI lraId = lraClient.startLRA(testName.getMethodName());
+        LongRunningAction lra = service.getTransaction(lraId);
+
+        recoveredLRAs.set(0);
+        service.scan();
+
+        assertEquals("recovery should not have read the log of an active LRA", 0, recoveredLRAs.get());
+        assertEquals("recovery should not have replaced the active LRA", lra, service.getTransaction(lraId));
+
+        lraClient.closeLRA(lraId);
+
+        assertEquals("the LRA should still be usable after the recovery pass", LRAStatus.Closed, lra.getLRAStatus());
+    }
+
+    /*
+     * verify that failed LRAs are listed a page at a time, that by default the failed records are only read the
+     * first time they are listed, and that deleting a failed LRA removes it from the listing
+     */
+    @Test
+    @BMRules(rules = {
+            @BMRule(name = "count failed LRAs read from the store",
+                    targetClass = "io.narayana.lra.coordinator.domain.model.FailedLongRunningAction",
+                    targetMethod = "<init>",
+                    action = "io.narayana.lra.coordinator.domain.model.LRATest.failedLRAsRead.incrementAndGet()")
+    })
+    public void testFailedLRACatalogue() throws JsonProcessingException {
+        checkFailedLRAListing(true);
+    }
+
+    /*
+     * verify that failed LRAs are still listed correctly when the catalogue is disabled, in which case the failed
+     * records are read again for every listing
+     */
+    @Test
+    @BMRules(rules = {
+            @BMRule(name = "count failed LRAs read from the store",
+                    targetClass = "io.narayana.lra.coordinator.domain.model.FailedLongRunningAction",
+                    targetMethod = "<init>",
+                    action = "io.narayana.lra.coordinator.domain.model.LRATest.failedLRAsRead.incrementAndGet()")
+    })
+    public void testFailedLRACatalogueDisabled() throws JsonProcessingException {
+        System.setProperty(FailedLRACatalogue.CATALOGUE_PROPERTY, "false");
+
+        try {
+            checkFailedLRAListing(false);
+        } finally {
+            System.clearProperty(FailedLRACatalogue.CATALOGUE_PROPERTY);
+        }
+    }
+
+    private void checkFailedLRAListing(boolean catalogued) throws JsonProcessingException {
+        String participant = TestPortProvider.generateURL("/base/failing-participant");
+        Set<URI> lraIds = new HashSet<>();
+
+        for (int i = 0; i < 3; i++) {
+            URI lraId = lraClient.startLRA(testName.getMethodName());
+
+            lraClient.clearCurrent(false);
+            lraClient.joinLRA(lraId, 0L, URI.create(participant + "/compensate"),
+                    URI.create(participant + "/complete"), null, null, null, null, (String) null);
+            lraClient.cancelLRA(lraId);
+            lraIds.add(lraId);
+        }
+
+        assertTrue("the failed LRAs should have been listed", getFailedLRAs().containsAll(lraIds));
+
+        failedLRAsRead.set(0);
+
+        assertTrue("the failed LRAs should still be listed", getFailedLRAs().containsAll(lraIds));
+
+        if (catalogued) {
+            assertEquals("the failed records should not have been read again", 0, failedLRAsRead.get());
+        } else {
+            assertTrue("the failed records should have been read again", failedLRAsRead.get() >= lraIds.size());
+        }
+
+        URI deleted = lraIds.iterator().next();
+
+        try (Response response = client.target(recoveryPath)
+                .path(URLEncoder.encode(deleted.toASCIIString(), StandardCharsets.UTF_8))
+                .request().delete()) {
+            assertEquals("the failed LRA should have been deleted", 204, response.getStatus());
+        }
+
+        lraIds.remove(deleted);
+
+        List<URI> failed = getFailedLRAs();
+
+        assertFalse("the deleted LRA should not be listed", failed.contains(deleted));
+        assertTrue("the other failed LRAs should still be listed", failed.containsAll(lraIds));
+
+        lraIds.forEach(lraId -> service.removeFailedLog(lraId.toASCIIString()));
+    }
+
+    // list the failed LRAs two at a time by following the next links
+    private List<URI> getFailedLRAs() throws JsonProcessingException {
+        List<URI> failed = new ArrayList<>();
+        URI page = UriBuilder.fromUri(recoveryPath).path("failed").queryParam(LRAConstants.LIMIT_PARAM_NAME, 2).build();
+
+        while (page != null) {
+            try (Response response = client.target(page).request().get()) {
+                assertEquals("Unexpected status listing failed LRAs", OK.getStatusCode(), response.getStatus());
+
+                LRAData[] lras = new ObjectMapper().readValue(response.readEntity(String.class), LRAData[].class);
+
+                assertTrue("A page holds more LRAs than the limit", lras.length <= 2);
+                Arrays.stream(lras).forEach(lra -> {
+                    assertTrue("A failed LRA should be in a failed state",
+                            lra.getStatus() == LRAStatus.FailedToCancel || lra.getStatus() == LRAStatus.FailedToClose);
+                    failed.add(lra.getLraId());
+                });
+                page = response.getLink("next") == null ? null : response.getLink("next").getUri();
+            }
+        }
+
+        return failed;
+    }
+
+    /*
+     * verify that a participant that asks to be retried later backs off, is skipped by recovery passes whilst it
+     * is backing off, and is retried when its Retry-After delay has passed without waiting for a recovery pass
+     */
+    @Test
+    public void testParticipantRetryBackoff() throws InterruptedException {
+        System.setProperty(ParticipantRetries.BACKOFF_PROPERTY, "true");
+        // make the computed delay too long for the test so that only the Retry-After header can finish it in time
+        System.setProperty(ParticipantRetries.INITIAL_DELAY_PROPERTY, "60000");
+
+        try {
+            String participant = TestPortProvider.generateURL("/base/busy-participant");
+            long retryAfterCount = ParticipantRetries.getUsage().getRetryAfter();
+
+            BusyParticipant.busyCount.set(2);
+            BusyParticipant.callCount.set(0);
+
+            URI lraId = lraClient.startLRA(testName.getMethodName());
+
+            lraClient.joinLRA(lraId, 0L, URI.create(participant + "/compensate"), URI.create(participant + "/complete"),
+                    null, null, null, null, (String) null);
+            lraClient.cancelLRA(lraId);
+
+            assertEquals("the participant should have been asked to compensate", 1, BusyParticipant.callCount.get());
+
+            service.scan();
+
+            assertEquals("recovery should have skipped the participant whilst it is backing off",
+                    1, BusyParticipant.callCount.get());
+
+            // the participant asks to be retried after one second, twice
+            for (int i = 0; i < 100 && (BusyParticipant.callCount.get() < 3 || service.hasTransaction(lraId)); i++) {
+                TimeUnit.MILLISECONDS.sleep(100);
+            }
+
+            assertEquals("the participant should have been retried until it compensated",
+                    3, BusyParticipant.callCount.get());
+            assertFalse("the LRA should have finished", service.hasTransaction(lraId));
+            assertEquals("both retries should have used the Retry-After header",
+                    retryAfterCount + 2, ParticipantRetries.getUsage().getRetryAfter());
+            assertEquals("no participants should be backing off", 0, ParticipantRetries.getUsage().getBackingOff());
+        } finally {
+            System.clearProperty(ParticipantRetries.BACKOFF_PROPERTY);
+            System.clearProperty(ParticipantRetries.INITIAL_DELAY_PROPERTY);
+        }
+    }
+
+    /*
+     * verify that the circuit breaker of a participant host that cannot be reached opens, rejects requests to the
+     * host whilst it is open, and lets a probe through once the open period has passed
+     */
+    @Test
+    public void testParticipantCircuitBreaker() throws InterruptedException {
+        System.setProperty(CircuitBreaker.CIRCUIT_BREAKER_PROPERTY, "true");
+        System.setProperty(CircuitBreaker.FAILURE_THRESHOLD_PROPERTY, "2");
+        System.setProperty(CircuitBreaker.OPEN_DURATION_PROPERTY, "500");
+
+        try {
+            String host = "localhost:1"; // nothing listens on this port
+            URI participant = URI.create("http://" + host + "/participant");
+
+            for (int i = 0; i < 3; i++) {
+                URI lraId = lraClient.startLRA(testName.getMethodName() + i);
+
+                lraClient.clearCurrent(false);
+                lraClient.joinLRA(lraId, 0L, participant, null);
+                lraClient.cancelLRA(lraId);
+            }
+
+            CircuitBreaker breaker = ParticipantClient.getPoolUsage().get(host).getCircuitBreaker();
+
+            assertEquals("two failures should have opened the breaker", CircuitBreaker.State.OPEN, breaker.getState());
+            assertEquals("the third request should have been rejected", 1, breaker.getRejected());
+
+            TimeUnit.MILLISECONDS.sleep(600);
+            service.scan(); // the first request probes the host and the others are rejected whilst it is in progress
+
+            assertEquals("the failed probe should have opened the breaker again",
+                    CircuitBreaker.State.OPEN, breaker.getState());
+            assertEquals("the breaker should have opened twice", 2, breaker.getOpened());
+        } finally {
+            System.clearProperty(CircuitBreaker.CIRCUIT_BREAKER_PROPERTY);
+            System.clearProperty(CircuitBreaker.FAILURE_THRESHOLD_PROPERTY);
+            System.clearProperty(CircuitBreaker.OPEN_DURATION_PROPERTY);
+        }
+    }
+
+    /*
+     * verify that the circuit breaker counts responses saying that the host cannot handle requests (503) as
+     * failures and other error responses (500) as successes
+     */
+    @Test
+    public void testCircuitBreakerCountsUnavailableResponses() throws InterruptedException {
+        System.setProperty(CircuitBreaker.CIRCUIT_BREAKER_PROPERTY, "true");
+        System.setProperty(CircuitBreaker.FAILURE_THRESHOLD_PROPERTY, "2");
+        System.setProperty(CircuitBreaker.OPEN_DURATION_PROPERTY, "500");
+        UnavailableParticipant.unavailable = true;
+
+        try {
+            String failing = TestPortProvider.generateURL("/base/failing-participant");
+            String unavailable = TestPortProvider.generateURL("/base/unavailable-participant");
+            CircuitBreaker breaker = null;
+
+            for (int i = 0; i < 2; i++) {
+                endWithParticipant(failing);
+                breaker = ParticipantClient.getPoolUsage().get(URI.create(failing).getAuthority()).getCircuitBreaker();
+
+                assertEquals("a 500 response should not count as a failure", 0, breaker.getConsecutiveFailures());
+            }
+
+            for (int i = 0; i < 2; i++) {
+                endWithParticipant(unavailable);
+            }
+
+            assertEquals("two 503 responses should have opened the breaker", CircuitBreaker.State.OPEN, breaker.getState());
+
+            UnavailableParticipant.unavailable = false;
+            TimeUnit.MILLISECONDS.sleep(600);
+            service.scan(); // the probe finishes the cancelled LRAs
+
+            assertEquals("a successful probe should have closed the breaker", CircuitBreaker.State.CLOSED,
+                    breaker.getState());
+        } finally {
+            UnavailableParticipant.unavailable = false;
+            System.clearProperty(CircuitBreaker.CIRCUIT_BREAKER_PROPERTY);
+            System.clearProperty(CircuitBreaker.FAILURE_THRESHOLD_PROPERTY);
+            System.clearProperty(CircuitBreaker.OPEN_DURATION_PROPERTY);
+        }
+    }
+
+    // cancel an LRA that has a single participant
+    private void endWithParticipant(String participant) {
+        URI lraId = lraClient.startLRA(testName.getMethodName());
+
+        lraClient.clearCurrent(false);
+        lraClient.joinLRA(lraId, 0L, URI.create(participant + "/compensate"),
+                URI.create(participant + "/complete"), null, null, null, null, (String) null);
+        lraClient.cancelLRA(lraId);
+    }
+
+    /*
+     * verify that participants that reply after the participant timeout do not keep pooled connections to their
+     * host, which would leave later requests to the host waiting for a connection
+     */
+    @Test
+    public void testLateParticipantRepliesReleaseConnections() throws Exception {
+        URI participant = URI.create(TestPortProvider.generateURL("/base/slow-participant"));
+        int poolSize = 2;
+        int lraCount = poolSize + 1;
+
+        System.setProperty(ParticipantClient.POOL_SIZE_PER_HOST_PROPERTY, Integer.toString(poolSize));
+        ParticipantClient.close(); // the pool is sized when the client is created
+        SlowParticipant.slow = true;
+        SlowParticipant.replyCount.set(0);
+
+        try {
+            ExecutorService executor = Executors.newFixedThreadPool(lraCount);
+
+            try {
+                List<Future<?>> closes = new ArrayList<>();
+
+                for (int i = 0; i < lraCount; i++) {
+                    closes.add(executor.submit(() -> closeWithSlowParticipant(participant)));
+                }
+
+                for (Future<?> close : closes) {
+                    close.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+
+            // let the participants reply, late, to the requests that timed out but answer any retries at once
+            SlowParticipant.slow = false;
+
+            // the late replies between them would use up every connection to the host if they were leaked
+            for (int i = 0; i < 400 && SlowParticipant.replyCount.get() < lraCount; i++) {
+                TimeUnit.MILLISECONDS.sleep(50);
+            }
+
+            assertTrue("the participants should have replied", SlowParticipant.replyCount.get() >= lraCount);
+
+            URI lraId = lraClient.startLRA(testName.getMethodName());
+
+            queue.clear();
+            joinParticipant1(lraId, 0);
+            lraClient.closeLRA(lraId);
+
+            assertEquals("a participant on the same host should have been completed", 1, queue.size());
+            queue.clear();
+        } finally {
+            SlowParticipant.slow = false;
+            System.clearProperty(ParticipantClient.POOL_SIZE_PER_HOST_PROPERTY);
+            ParticipantClient.close();
+        }
+    }
+
+    private void closeWithSlowParticipant(URI participant) {
+        URI lraId = lraClient.startLRA(testName.getMethodName());
+
+        lraClient.clearCurrent(false);
+        lraClient.joinLRA(lraId, 0L, UriBuilder.fromUri(participant).path("compensate").build(),
+                UriBuilder.fromUri(participant).path("complete").build(), null, null, null, null, (String) null);
+        service.endLRA(lraId, false, false);
+    }
+
+    /*
+     * verify that with many participants joining again does not enlist a duplicate and leaving removes the participant
+     */
+    @Test
+    public void testJoinAndLeaveWithManyParticipants() {
+        int participantCount = 50;
+        URI lraId = lraClient.startLRA(testName.getMethodName());
+        URI[] recoveryUrls = new URI[participantCount];
+
+        queue.clear();
+
+        for (int i = 0; i < participantCount; i++) {
+            recoveryUrls[i] = joinParticipant1(lraId, i);
+        }
+
+        assertEquals("joining again should return the existing enlistment", recoveryUrls[0], joinParticipant1(lraId, 0));
+
+        lraClient.leaveLRA(lraId, recoveryUrls[participantCount / 2].toASCIIString());
+        lraClient.closeLRA(lraId);
+
+        assertEquals("every participant apart from the one that left should have completed",
+                participantCount - 1, queue.size());
+        queue.clear();
+    }
+
+    private URI joinParticipant1(URI lraId, int i) {
+        String participant = TestPortProvider.generateURL("/base/participant1");
+
+        return lraClient.joinLRA(lraId, 0L,
+                URI.create(participant + "/compensate?instance=" + i), URI.create(participant + "/complete?instance=" + i),
+                null, null, null, null, (String) null);
+    }
+
+    /*
+     * verify that in incremental mode joins append participant log entries, that the log is compacted and that
+     * restoring the LRA from the store yields every participant
+     */
+    @Test
+    public void testIncrementalParticipantLog() throws Exception {
+        System.setProperty(ParticipantLog.INCREMENTAL_PROPERTY, "true");
+        System.setProperty(ParticipantLog.COMPACTION_THRESHOLD_PROPERTY, "3");
+        queue.clear();
+
+        try {
+            URI lraId = lraClient.startLRA(testName.getMethodName());
+            Uid lraUid = service.getTransaction(lraId).get_uid();
+            URI[] recoveryUrls = new URI[6];
+
+            for (int i = 0; i < 5; i++) {
+                recoveryUrls[i] = joinParticipant1(lraId, i);
+            }
+
+            // the first three joins append entries, the fourth compacts the log and the fifth appends an entry
+            assertEquals("the participant log should have been compacted", 1, countEntries(lraUid));
+            assertStoredParticipants(lraId, null, recoveryUrls[0], recoveryUrls[1], recoveryUrls[2], recoveryUrls[3],
+                    recoveryUrls[4]);
+
+            // a participant leaving cannot be logged incrementally so the next join writes the full record
+            lraClient.leaveLRA(lraId, recoveryUrls[2].toASCIIString());
+            recoveryUrls[5] = joinParticipant1(lraId, 5);
+
+            assertEquals("the full record should have replaced the participant log", 0, countEntries(lraUid));
+            assertStoredParticipants(lraId, recoveryUrls[2], recoveryUrls[0], recoveryUrls[1], recoveryUrls[3],
+                    recoveryUrls[4], recoveryUrls[5]);
+
+            recoveryUrls[2] = joinParticipant1(lraId, 2);
+            lraClient.closeLRA(lraId);
+
+            assertEquals("every participant should have completed", 6, queue.size());
+            assertEquals("the participant log should be empty once the LRA has finished", 0,
+                    countEntries(lraUid));
+            queue.clear();
+        } finally {
+            System.clearProperty(ParticipantLog.INCREMENTAL_PROPERTY);
+            System.clearProperty(ParticipantLog.COMPACTION_THRESHOLD_PROPERTY);
+        }
+    }
+
+    /*
+     * verify that recovery removes participant log entries whose LRA has no log record and keeps the others
+     */
+    @Test
+    public void testOrphanedParticipantLogEntries() throws Exception {
+        System.setProperty(ParticipantLog.INCREMENTAL_PROPERTY, "true");
+
+        try {
+            URI lraId = lraClient.startLRA(testName.getMethodName());
+            Uid lraUid = service.getTransaction(lraId).get_uid();
+            Uid orphanUid = new Uid();
+
+            writeEntry(lraUid);
+            writeEntry(orphanUid);
+            assertTrue(StoreManager.getRecoveryStore()
+                    .write_committed(new Uid(), ParticipantLog.ENTRY_TYPE, new OutputObjectState()));
+
+            ParticipantLog.removeOrphanedEntries(StoreManager.getRecoveryStore());
+
+            assertEquals("the entry of the active LRA should have been kept", 1, countEntries(lraUid));
+            assertEquals("the orphaned entry should have been removed", 0, countEntries(orphanUid));
+            assertEquals("the unreadable entry should have been removed", 1, countRecords(ParticipantLog.ENTRY_TYPE));
+
+            lraClient.closeLRA(lraId);
+            ParticipantLog.removeOrphanedEntries(StoreManager.getRecoveryStore());
+
+            assertEquals("the entry of the finished LRA should have been removed", 0,
+                    countRecords(ParticipantLog.ENTRY_TYPE));
+        } finally {
+            System.clearProperty(ParticipantLog.INCREMENTAL_PROPERTY);
+        }
+    }
+
+    // write a participant log entry that only holds the uid of its LRA
+    private void writeEntry(Uid lraUid) throws IOException, ObjectStoreException {
+        OutputObjectState os = new OutputObjectState();
+
+        UidHelper.packInto(lraUid, os);
+        assertTrue(StoreManager.getRecoveryStore().write_committed(new Uid(), ParticipantLog.ENTRY_TYPE, os));
+    }
+
+    // the number of participant log entries that belong to an LRA
+    private int countEntries(Uid lraUid) throws IOException, ObjectStoreException {
+        RecoveryStore store = StoreManager.getRecoveryStore();
+        InputObjectState uids = new InputObjectState();
+        int count = 0;
+
+        if (store.allObjUids(ParticipantLog.ENTRY_TYPE, uids)) {
+            for (Uid uid = UidHelper.unpackFrom(uids); uid.notEquals(Uid.nullUid()); uid = UidHelper.unpackFrom(uids)) {
+                InputObjectState entry = store.read_committed(uid, ParticipantLog.ENTRY_TYPE);
+
+                if (entry != null && entry.notempty() && UidHelper.unpackFrom(entry).equals(lraUid)) {
+                    count += 1;
+                }
+            }
+        }
+
+        return count;
+    }
+
+    // restore a copy of the LRA from the store and check which participants it has
+    private void assertStoredParticipants(URI lraId, URI leftUrl, URI... recoveryUrls) {
+        LongRunningAction stored = new LongRunningAction(service.getTransaction(lraId).get_uid());
+
+        assertTrue("the LRA should be in the store", stored.activate());
+
+        for (URI recoveryUrl : recoveryUrls) {
+            assertTrue("the stored LRA should include participant " + recoveryUrl,
+                    stored.forgetParticipant(recoveryUrl.toASCIIString()));
+        }
+
+        if (leftUrl != null) {
+            assertFalse("the stored LRA should not include the participant that left",
+                    stored.forgetParticipant(leftUrl.toASCIIString()));
+        }
+    }
+
+    /*
+     * verify that LRA records are smaller in the compact format and that records written in the legacy format
+     * can still be restored
+     */
+    @Test
+    public void testCompactStateFormat() throws Exception {
+        queue.clear();
+
+        URI[] legacyUrls = new URI[3];
+        URI[] compactUrls = new URI[3];
+        URI legacyLRA = lraClient.startLRA(testName.getMethodName());
+        URI compactLRA;
+
+        lraClient.clearCurrent(false); // so that the next LRA is not nested
+
+        // records are written in the legacy format by default
+        for (int i = 0; i < legacyUrls.length; i++) {
+            legacyUrls[i] = joinParticipant1(legacyLRA, i);
+        }
+
+        System.setProperty(StateFormat.FORMAT_PROPERTY, StateFormat.COMPACT);
+
+        try {
+            compactLRA = lraClient.startLRA(testName.getMethodName());
+
+            for (int i = 0; i < compactUrls.length; i++) {
+                compactUrls[i] = joinParticipant1(compactLRA, i);
+            }
+        } finally {
+            System.clearProperty(StateFormat.FORMAT_PROPERTY);
+        }
+
+        int legacySize = storedSize(legacyLRA);
+        int compactSize = storedSize(compactLRA);
+
+        assertTrue(String.format("the compact record (%d bytes) should be smaller than the legacy one (%d bytes)",
+                compactSize, legacySize), compactSize < legacySize);
+
+        assertStoredParticipants(legacyLRA, null, legacyUrls);
+        assertStoredParticipants(compactLRA, null, compactUrls);
+
+        for (URI lraId : new URI[] {legacyLRA, compactLRA}) {
+            LongRunningAction stored = new LongRunningAction(service.getTransaction(lraId).get_uid());
+
+            assertTrue("the LRA should be in the store", stored.activate());
+            assertEquals("the stored LRA should have the same id", lraId, stored.getId());
+            assertEquals("the stored LRA should be active", LRAStatus.Active, stored.getLRAStatus());
+            assertEquals("the stored LRA should have the same client id", testName.getMethodName(), stored.getClientId());
+        }
+
+        lraClient.closeLRA(legacyLRA);
+        lraClient.closeLRA(compactLRA);
+
+        assertEquals("every participant should have completed", 6, queue.size());
+        queue.clear();
+    }
+
+    /*
+     * verify that a compact record written in an unknown version, or with an unknown status, is not restored
+     */
+    @Test
+    public void testCompactStateFormatIsValidated() throws Exception {
+        OutputObjectState os = new OutputObjectState();
+
+        os.packInt(StateFormat.LRA_MARKER);
+        os.packInt(StateFormat.VERSION + 1);
+
+        InputObjectState is = new InputObjectState(os);
+
+        try {
+            StateFormat.unpackLRAHeader(is, is.unpackInt());
+            fail("a record in an unknown version of the compact format should not be restored");
+        } catch (IOException expected) {
+            // the record was refused
+        }
+
+        assertEquals("a status should be restored by name", LRAStatus.Closing,
+                StateFormat.toEnum(LRAStatus.class, LRAStatus.Closing.name()));
+
+        try {
+            StateFormat.toEnum(LRAStatus.class, "Unknown");
+            fail("an unknown status should not be restored");
+        } catch (IOException expected) {
+            // the status was refused
+        }
+
+        try {
+            StateFormat.toEnum(LRAStatus.class, LRAStatus.values().length);
+            fail("an unknown status ordinal should not be restored");
+        } catch (IOException expected) {
+            // the status was refused
+        }
+    }
+
+    // the number of bytes in the log record of an LRA
+    private int storedSize(URI lraId) throws ObjectStoreException {
+        return StoreManager.getRecoveryStore()
+                .read_committed(service.getTransaction(lraId).get_uid(), LongRunningAction.getType())
+                .length();
+    }
+
+    /*
+     * verify that holding the lock on one LRA does not block other LRAs and that a lock is usable again once released
+     */
+    @Test
+    public void testLRALocksAreIndependent() throws Exception {
+        URI lra1 = URI.create(coordinatorPath + "/lra1");
+        URI lra2 = URI.create(coordinatorPath + "/lra2");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ReentrantLock lock = service.lockTransaction(lra1);
+
+        try {
+            assertNull("another thread should not be able to lock a held LRA",
+                    executor.submit(() -> service.tryLockTransaction(lra1)).get());
+            assertTrue("holding the lock on one LRA should not prevent another LRA from being locked",
+                    executor.submit(() -> {
+                        ReentrantLock other = service.tryLockTransaction(lra2);
+
+                        if (other == null) {
+                            return false;
+                        }
+
+                        other.unlock();
+                        return true;
+                    }).get());
+
+            service.remove(lra1); // removing the LRA whilst it is locked must not discard a lock that is in use
+            assertNull("the lock of a removed LRA should still be held",
+                    executor.submit(() -> service.tryLockTransaction(lra1)).get());
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            assertTrue("the LRA should be lockable once it has been unlocked", executor.submit(() -> {
+                ReentrantLock relocked = service.tryLockTransaction(lra1);
+
+                if (relocked == null) {
+                    return false;
+                }
+
+                relocked.unlock();
+                return true;
+            }).get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     void participantCallbackOrder(boolean cancel) {
         queue.clear(); // reset the queue which records the order in which participants are ended
 
         URI lraId = lraClient.startLRA(testName.getMethodName());
 
+        enlistParticipants(lraId, cancel);
+
+        if (cancel) {
+            lraClient.cancelLRA(lraId);
+        } else {
+            lraClient.closeLRA(lraId);
+        }
+
+        // verify that participants participant1 and participant2 were compensated/completed in reverse order,
+        // ie the queue should be in the order {2, 1} because they were enlisted in the order {1, 2}
+        assertEquals(String.format("second participant should have %s first", cancel ? "compensated" : "completed"),
+                Integer.valueOf(2), queue.remove()); // removing the first item from the queue should give participant2
+
+        queue.remove(); // clean up item from participant1 (the remaining integer on the queue)
+    }
+
+    private void enlistParticipants(URI lraId, boolean cancel) {
         for (int i = 1; i <= 2; i++) { // pick out participants participant1 and participant2
             String businessMethodName = String.format("/base/participant%d/continue", i);
 
@@ -321,19 +1172,6 @@ public class LRATest extends LRATestBase {
                 }
             }
         }
-
-        if (cancel) {
-            lraClient.cancelLRA(lraId);
-        } else {
-            lraClient.closeLRA(lraId);
-        }
-
-        // verify that participants participant1 and participant2 were compensated/completed in reverse order,
-        // ie the queue should be in the order {2, 1} because they were enlisted in the order {1, 2}
-        assertEquals(String.format("second participant should have %s first", cancel ? "compensated" : "completed"),
-                Integer.valueOf(2), queue.remove()); // removing the first item from the queue should give participant2
-
-        queue.remove(); // clean up item from participant1 (the remaining integer on the queue)
     }
 
     /**
@@ -467,6 +1305,215 @@ public class LRATest extends LRATestBase {
         }
     }
 
+    @Test
+    public void testGetAllLRAsPaged() throws JsonProcessingException {
+        String clientId = testName.getMethodName();
+        Set<URI> lraIds = new HashSet<>();
+
+        for (int i = 0; i < 5; i++) {
+            lraIds.add(lraClient.startLRA(clientId));
+            lraClient.clearCurrent(false);
+        }
+
+        URI nested = lraClient.startLRA(lraIds.iterator().next(), clientId, 0L, ChronoUnit.SECONDS);
+        lraClient.clearCurrent(false);
+
+        try {
+            // follow the next links until the last page, which does not have one
+            Set<URI> listed = new HashSet<>();
+            URI page = UriBuilder.fromUri(coordinatorPath)
+                    .queryParam(LRAConstants.CLIENT_ID_PARAM_NAME, clientId)
+                    .queryParam(LRAConstants.TOP_LEVEL_PARAM_NAME, true)
+                    .queryParam(LRAConstants.LIMIT_PARAM_NAME, 2)
+                    .build();
+            int pages = 0;
+
+            while (page != null) {
+                try (Response response = client.target(page).request().accept(MediaType.APPLICATION_JSON).get()) {
+                    assertEquals("Unexpected status listing LRAs", OK.getStatusCode(), response.getStatus());
+
+                    LRAData[] lras = new ObjectMapper().readValue(response.readEntity(String.class), LRAData[].class);
+
+                    assertTrue("A page holds more LRAs than the limit", lras.length <= 2);
+                    Arrays.stream(lras).forEach(lra -> assertTrue("An LRA was listed twice", listed.add(lra.getLraId())));
+                    page = response.getLink("next") == null ? null : response.getLink("next").getUri();
+                    pages++;
+                }
+            }
+
+            assertEquals("The top level LRAs should have been listed", lraIds, listed);
+            assertEquals("Unexpected number of pages", 3, pages);
+
+            // the nested LRA is the only one that is not top level
+            try (Response response = client.target(coordinatorPath)
+                    .queryParam(LRAConstants.CLIENT_ID_PARAM_NAME, clientId)
+                    .queryParam(LRAConstants.TOP_LEVEL_PARAM_NAME, false)
+                    .request().accept(MediaType.APPLICATION_JSON).get()) {
+                LRAData[] lras = new ObjectMapper().readValue(response.readEntity(String.class), LRAData[].class);
+
+                assertEquals("Only the nested LRA should have been listed", 1, lras.length);
+                assertEquals("Only the nested LRA should have been listed", nested, lras[0].getLraId());
+            }
+
+            // none of the LRAs started in the future
+            try (Response response = client.target(coordinatorPath)
+                    .queryParam(LRAConstants.CLIENT_ID_PARAM_NAME, clientId)
+                    .queryParam(LRAConstants.STARTED_FROM_PARAM_NAME, System.currentTimeMillis() + 60_000L)
+                    .request().accept(MediaType.APPLICATION_JSON).get()) {
+                assertEquals("No LRAs should have been listed", "[]", response.readEntity(String.class));
+            }
+
+            try (Response response = client.target(coordinatorPath)
+                    .queryParam(LRAConstants.LIMIT_PARAM_NAME, 0)
+                    .request().get()) {
+                assertEquals("A limit of zero should be rejected", 400, response.getStatus());
+            }
+        } finally {
+            lraClient.cancelLRA(nested);
+            lraIds.forEach(lraClient::cancelLRA);
+        }
+    }
+
+    @Test
+    public void testBatchOperations() {
+        List<LRABatchResult> started = lraClient.startLRAs(null, testName.getMethodName(), 0L, ChronoUnit.SECONDS, 5);
+
+        assertEquals("Every LRA should have been started", 5, started.size());
+        started.forEach(result -> {
+            assertEquals("Unexpected start result: " + result, 201, result.getHttpStatus());
+            assertEquals("A started LRA should be active", LRAStatus.Active, result.getStatus());
+            assertTrue("The coordinator should know about the LRA", service.hasTransaction(result.getLraId()));
+        });
+
+        List<URI> lraIds = started.stream().map(LRABatchResult::getLraId).collect(Collectors.toList());
+
+        assertEquals("The started LRAs should be distinct", 5, new HashSet<>(lraIds).size());
+        assertNull("Starting LRAs in a batch should not associate them with the caller", lraClient.getCurrent());
+
+        URI unknown = URI.create(coordinatorPath + "/" + new Uid().fileStringForm());
+        List<LRABatchResult> results = lraClient.runBatch(Arrays.asList(
+                LRABatchOperation.status(lraIds.get(0)),
+                LRABatchOperation.close(lraIds.get(0)),
+                LRABatchOperation.close(lraIds.get(1)),
+                LRABatchOperation.cancel(lraIds.get(2)),
+                LRABatchOperation.close(unknown),
+                new LRABatchOperation()));
+
+        assertEquals("There should be a result for each operation", 6, results.size());
+        assertEquals("Unexpected status result", LRAStatus.Active, results.get(0).getStatus());
+        assertEquals("Unexpected close result", LRAStatus.Closed, results.get(1).getStatus());
+        assertEquals("Unexpected close result", LRAStatus.Closed, results.get(2).getStatus());
+        assertEquals("Unexpected cancel result", LRAStatus.Cancelled, results.get(3).getStatus());
+        assertEquals("Closing an unknown LRA should fail", 404, results.get(4).getHttpStatus());
+        assertEquals("An operation without a type should be rejected", 400, results.get(5).getHttpStatus());
+        assertFalse("The closed LRA should have finished", service.hasTransaction(lraIds.get(1)));
+
+        results = lraClient.cancelLRAs(lraIds.subList(3, 5));
+
+        assertTrue("The remaining LRAs should have been cancelled",
+                results.stream().allMatch(result -> result.isSuccessful() && result.getStatus() == LRAStatus.Cancelled));
+
+        System.setProperty(Coordinator.BATCH_SIZE_PROPERTY, "2");
+
+        try {
+            lraClient.runBatch(Arrays.asList(LRABatchOperation.status(lraIds.get(0)),
+                    LRABatchOperation.status(lraIds.get(1)), LRABatchOperation.status(lraIds.get(2))));
+            fail("A batch with too many operations should be rejected");
+        } catch (WebApplicationException e) {
+            assertEquals("Unexpected status for a batch that is too large", 400, e.getResponse().getStatus());
+            assertThat("The reason for rejecting the batch should be readable",
+                    e.getResponse().readEntity(String.class), containsString("more than 2 operations"));
+        } finally {
+            System.clearProperty(Coordinator.BATCH_SIZE_PROPERTY);
+        }
+
+        try {
+            lraClient.runBatch(null);
+            fail("A batch without a list of operations should be rejected");
+        } catch (WebApplicationException e) {
+            assertEquals("Unexpected status for a batch without operations", 400, e.getResponse().getStatus());
+            assertThat("The reason for rejecting the batch should be readable",
+                    e.getResponse().readEntity(String.class), containsString("must contain a list of operations"));
+        }
+    }
+
+    /*
+     * verify that work shared out by the coordinator never runs more than the requested number of items at a
+     * time, in virtual thread mode (if the JVM supports it) as well as on platform threads
+     */
+    @Test
+    public void testBoundedParallelism() {
+        for (boolean virtual : new boolean[] {false, true}) {
+            System.setProperty(CoordinatorThreads.VIRTUAL_THREADS_PROPERTY, Boolean.toString(virtual));
+
+            try {
+                AtomicInteger running = new AtomicInteger();
+                AtomicInteger maxRunning = new AtomicInteger();
+                AtomicInteger done = new AtomicInteger();
+
+                CoordinatorThreads.forEach(IntStream.range(0, 20).boxed().collect(Collectors.toList()), i -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(20);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+
+                    running.decrementAndGet();
+                    done.incrementAndGet();
+                }, 3);
+
+                assertEquals("every item should have been handled (virtual=" + virtual + ")", 20, done.get());
+                assertTrue("no more than 3 items should have run at a time (virtual=" + virtual + "): " + maxRunning,
+                        maxRunning.get() <= 3);
+                assertTrue("the items should have been handled concurrently (virtual=" + virtual + ")",
+                        maxRunning.get() > 1);
+            } finally {
+                System.clearProperty(CoordinatorThreads.VIRTUAL_THREADS_PROPERTY);
+                CoordinatorThreads.shutdown();
+            }
+        }
+    }
+
+    /*
+     * verify that the client answers status queries from its cache whilst the LRA is active and asks the
+     * coordinator again once the LRA has been closed
+     */
+    @Test
+    public void testStatusCache() {
+        System.setProperty(LRAStatusCache.TIME_TO_LIVE_PROPERTY, "60000");
+
+        try {
+            URI lraId = lraClient.startLRA(testName.getMethodName());
+            LRAStatusCache.StatusCacheUsage before = LRAStatusCache.getUsage();
+
+            for (int i = 0; i < 5; i++) {
+                assertEquals("the LRA should be active", LRAStatus.Active, lraClient.getStatus(lraId));
+            }
+
+            LRAStatusCache.StatusCacheUsage usage = LRAStatusCache.getUsage();
+
+            assertEquals("the status learnt when the LRA started should have been used",
+                    before.getHits() + 5, usage.getHits());
+            assertEquals("the coordinator should not have been asked", before.getMisses(), usage.getMisses());
+
+            lraClient.closeLRA(lraId);
+
+            try {
+                assertNotEquals("the LRA should not be active", LRAStatus.Active, lraClient.getStatus(lraId));
+            } catch (NotFoundException ignore) {
+                // the LRA has already gone
+            }
+
+            assertEquals("closing the LRA should have forgotten its status",
+                    usage.getMisses() + 1, LRAStatusCache.getUsage().getMisses());
+        } finally {
+            System.clearProperty(LRAStatusCache.TIME_TO_LIVE_PROPERTY);
+            LRAStatusCache.clear();
+        }
+    }
+
     @Test
     // start an LRA and validate that the coordinator reports its status correctly
     public void testLRAInfoAcceptJson() {
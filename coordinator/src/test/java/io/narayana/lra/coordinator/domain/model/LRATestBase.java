@@ -6,6 +6,7 @@
 package io.narayana.lra.coordinator.domain.model;
 
 import static io.narayana.lra.LRAConstants.COORDINATOR_PATH_NAME;
+import static io.narayana.lra.LRAConstants.PARTICIPANT_TIMEOUT;
 import static org.eclipse.microprofile.lra.annotation.ws.rs.LRA.LRA_HTTP_CONTEXT_HEADER;
 import static org.eclipse.microprofile.lra.annotation.ws.rs.LRA.LRA_HTTP_PARENT_CONTEXT_HEADER;
 import static org.eclipse.microprofile.lra.annotation.ws.rs.LRA.LRA_HTTP_RECOVERY_HEADER;
@@ -18,6 +19,7 @@ import java.time.temporal.ChronoUnit;
 import java.util.Objects;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 
@@ -53,6 +55,7 @@ import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.ClientBuilder;
 import jakarta.ws.rs.client.Entity;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 
@@ -426,6 +429,102 @@ public class LRATestBase {
         }
     }
 
+    // a participant that asks to be retried later, using a Retry-After header, until it has been asked busyCount times
+    @Path("/busy-participant")
+    public static class BusyParticipant {
+        static final AtomicInteger busyCount = new AtomicInteger(0);
+        static final AtomicInteger callCount = new AtomicInteger(0);
+
+        @PUT
+        @Path("complete")
+        public Response complete() {
+            return end(ParticipantStatus.Completing, ParticipantStatus.Completed);
+        }
+
+        @PUT
+        @Path("compensate")
+        public Response compensate() {
+            return end(ParticipantStatus.Compensating, ParticipantStatus.Compensated);
+        }
+
+        private Response end(ParticipantStatus busy, ParticipantStatus done) {
+            callCount.incrementAndGet();
+
+            if (busyCount.getAndDecrement() > 0) {
+                return Response.status(Response.Status.ACCEPTED).header(HttpHeaders.RETRY_AFTER, 1).entity(busy).build();
+            }
+
+            return Response.ok(done).build();
+        }
+    }
+
+    // a participant that, whilst slow is set, replies after the coordinator has stopped waiting for it
+    @Path("/slow-participant")
+    public static class SlowParticipant {
+        static volatile boolean slow;
+        static final AtomicInteger replyCount = new AtomicInteger(0);
+
+        @PUT
+        @Path("complete")
+        public Response complete() throws InterruptedException {
+            return end(ParticipantStatus.Completed);
+        }
+
+        @PUT
+        @Path("compensate")
+        public Response compensate() throws InterruptedException {
+            return end(ParticipantStatus.Compensated);
+        }
+
+        private Response end(ParticipantStatus done) throws InterruptedException {
+            if (slow) {
+                TimeUnit.SECONDS.sleep(PARTICIPANT_TIMEOUT + 1);
+            }
+
+            replyCount.incrementAndGet();
+
+            return Response.ok(done).build();
+        }
+    }
+
+    // a participant that always fails to complete or compensate, which leaves its LRA in a failed state
+    @Path("/failing-participant")
+    public static class FailingParticipant {
+        @PUT
+        @Path("complete")
+        public Response complete() {
+            return Response.serverError().entity(ParticipantStatus.FailedToComplete.name()).build();
+        }
+
+        @PUT
+        @Path("compensate")
+        public Response compensate() {
+            return Response.serverError().entity(ParticipantStatus.FailedToCompensate.name()).build();
+        }
+    }
+
+    // a participant that, whilst unavailable is set, replies that it cannot handle requests
+    @Path("/unavailable-participant")
+    public static class UnavailableParticipant {
+        static volatile boolean unavailable;
+
+        @PUT
+        @Path("complete")
+        public Response complete() {
+            return end(ParticipantStatus.Completed);
+        }
+
+        @PUT
+        @Path("compensate")
+        public Response compensate() {
+            return end(ParticipantStatus.Compensated);
+        }
+
+        private Response end(ParticipantStatus done) {
+            return unavailable ? Response.status(Response.Status.SERVICE_UNAVAILABLE).build() : Response.ok(done).build();
+        }
+    }
+
     // a resource that runs a method in an LRA and expects to receive an AfterLRA notification
     @Path("/lra-listener")
     public static class AfterLRAListener {
@@ -481,11 +580,15 @@ public class LRATestBase {
     }
 
     protected int countRecords() throws ObjectStoreException, IOException {
+        return countRecords(LongRunningAction.getType());
+    }
+
+    protected int countRecords(String type) throws ObjectStoreException, IOException {
         InputObjectState uids = new InputObjectState();
         RecoveryStore recoveryStore = StoreManager.getRecoveryStore();
         int count = 0;
 
-        if (recoveryStore.allObjUids(LongRunningAction.getType(), uids) && uids.notempty()) {
+        if (recoveryStore.allObjUids(type, uids) && uids.notempty()) {
             boolean finished = false;
 
             do {
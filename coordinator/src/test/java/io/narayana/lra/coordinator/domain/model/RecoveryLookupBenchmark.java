@@ -0,0 +1,67 @@
+/*
+   Copyright The Narayana Authors
+   SPDX-License-Identifier: Apache-2.0
+ */
+package io.narayana.lra.coordinator.domain.model;
+
+import static org.junit.Assert.assertEquals;
+
+import java.net.URISyntaxException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.Test;
+
+import io.narayana.lra.coordinator.domain.service.LRAService;
+
+/**
+ * Measures the latency of looking up a participant by its recovery id (which is what happens when a
+ * participant dereferences its recovery URL) as the number of active LRAs grows. The LRAs are only held
+ * in memory. Benchmarks are not part of the normal build, run them using {@code mvn test -Pbenchmark}.
+ */
+public class RecoveryLookupBenchmark {
+    private static final int[] LRA_COUNTS = {1_000, 10_000, 50_000};
+    private static final int LOOKUPS = Integer.getInteger("benchmark.lookups", 1_000_000);
+    private static final String BASE_URI = "http://localhost:8080/lra-coordinator";
+
+    @Test
+    public void participantLookupLatency() throws URISyntaxException {
+        System.out.printf("%d participant lookups by recovery id:%n", LOOKUPS);
+
+        lookupLatency(LRA_COUNTS[0]); // warm up
+
+        for (int lraCount : LRA_COUNTS) {
+            System.out.printf("  %6d LRAs: %.1f ns/lookup%n", lraCount, lookupLatency(lraCount));
+        }
+    }
+
+    // return the mean time taken to look up a participant when there are lraCount active LRAs
+    private double lookupLatency(int lraCount) throws URISyntaxException {
+        LRAService service = new LRAService();
+        String[] recoveryIds = new String[lraCount];
+
+        for (int i = 0; i < lraCount; i++) {
+            LongRunningAction lra = new LongRunningAction(service, BASE_URI, null, "benchmark");
+            String recoveryId = String.format("%s/recovery/%s/%d", BASE_URI, lra.get_uid().fileStringForm(), i);
+
+            service.addTransaction(lra);
+            service.updateRecoveryURI(lra.getId(), "http://localhost:8081/participant/" + i, recoveryId, false);
+            recoveryIds[i] = recoveryId;
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int found = 0;
+        long start = System.nanoTime();
+
+        for (int i = 0; i < LOOKUPS; i++) {
+            if (service.getParticipant(recoveryIds[random.nextInt(lraCount)]) != null) {
+                found++;
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals("every participant should have been found", LOOKUPS, found);
+
+        return (double) elapsed / LOOKUPS;
+    }
+}
@@ -0,0 +1,188 @@
+/*
+   Copyright The Narayana Authors
+   SPDX-License-Identifier: Apache-2.0
+ */
+package io.narayana.lra.coordinator.domain.model;
+
+import static io.narayana.lra.LRAConstants.COORDINATOR_PATH_NAME;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URI;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.microprofile.lra.annotation.ParticipantStatus;
+import org.jboss.resteasy.plugins.server.undertow.UndertowJaxrsServer;
+import org.jboss.resteasy.test.TestPortProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+import io.narayana.lra.client.internal.NarayanaLRAClient;
+import io.narayana.lra.coordinator.api.Coordinator;
+import io.narayana.lra.coordinator.domain.service.LRAService;
+import io.narayana.lra.coordinator.internal.LRARecoveryModule;
+import jakarta.ws.rs.ApplicationPath;
+import jakarta.ws.rs.PUT;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.core.Application;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Measures how long a recovery pass takes when the store holds LRAs whose participants are slow to compensate,
+ * as the number of recovery threads (see {@link LRARecoveryModule#RECOVERY_THREADS_PROPERTY}) grows. The
+ * participants keep reporting that they are still compensating so that every pass has to call each of them
+ * again. It also measures the cost of a pass over a store that only holds LRAs which are still active in this
+ * coordinator, which recovery has nothing to do for. Benchmarks are not part of the normal build, run them using {@code mvn test -Pbenchmark}.
+ */
+public class RecoveryScanBenchmark extends LRATestBase {
+    private static final int LRA_COUNT = Integer.getInteger("benchmark.lra.count", 200);
+    private static final long COMPENSATE_DELAY_MS = Long.getLong("benchmark.compensate.delay", 20L);
+    private static final int[] THREAD_COUNTS = {1, 4, 16};
+    private static final int[] ACTIVE_LRA_COUNTS = {1_000, 10_000};
+    private static final AtomicInteger compensations = new AtomicInteger();
+    private static volatile boolean compensated;
+
+    @Rule
+    public TestName testName = new TestName();
+    private NarayanaLRAClient lraClient;
+
+    @Path("/slow")
+    public static class SlowParticipant {
+        @PUT
+        @Path("/compensate")
+        public Response compensate() throws InterruptedException {
+            TimeUnit.MILLISECONDS.sleep(COMPENSATE_DELAY_MS);
+            compensations.incrementAndGet();
+
+            if (compensated) {
+                return Response.ok(ParticipantStatus.Compensated.name()).build();
+            }
+
+            return Response.accepted().build(); // ask the coordinator to try again later
+        }
+
+        @PUT
+        @Path("/complete")
+        public Response complete() {
+            return Response.ok(ParticipantStatus.Completed.name()).build();
+        }
+    }
+
+    @ApplicationPath("/")
+    public static class LRACoordinator extends Application {
+        @Override
+        public Set<Class<?>> getClasses() {
+            HashSet<Class<?>> classes = new HashSet<>();
+            classes.add(Coordinator.class);
+            return classes;
+        }
+    }
+
+    @ApplicationPath("/participant")
+    public static class ParticipantApp extends Application {
+        @Override
+        public Set<Class<?>> getClasses() {
+            HashSet<Class<?>> classes = new HashSet<>();
+            classes.add(SlowParticipant.class);
+            return classes;
+        }
+    }
+
+    @BeforeClass
+    public static void start() {
+        System.setProperty("lra.coordinator.url", TestPortProvider.generateURL('/' + COORDINATOR_PATH_NAME));
+    }
+
+    @Before
+    public void before() {
+        clearObjectStore(testName);
+        server = new UndertowJaxrsServer().start();
+        server.deploy(LRACoordinator.class);
+        server.deployOldStyle(ParticipantApp.class);
+        lraClient = new NarayanaLRAClient();
+    }
+
+    @After
+    public void after() {
+        System.clearProperty(LRARecoveryModule.RECOVERY_THREADS_PROPERTY);
+        lraClient.close();
+        clearObjectStore(testName);
+        server.stop();
+    }
+
+    @Test
+    public void recoveryPassDuration() {
+        LRAService service = LRARecoveryModule.getService();
+        URI participant = URI.create(TestPortProvider.generateURL("/participant/slow"));
+
+        compensated = false;
+
+        for (int i = 0; i < LRA_COUNT; i++) {
+            URI lraId = lraClient.startLRA(testName.getMethodName());
+
+            lraClient.clearCurrent(false);
+            lraClient.joinLRA(lraId, 0L, participant, null);
+            lraClient.cancelLRA(lraId); // the participant asks to be retried so the LRA is left for recovery
+        }
+
+        System.out.printf("recovery pass over %d LRAs with a participant that takes %d ms to compensate:%n",
+                LRA_COUNT, COMPENSATE_DELAY_MS);
+
+        try {
+            for (int threads : THREAD_COUNTS) {
+                System.setProperty(LRARecoveryModule.RECOVERY_THREADS_PROPERTY, Integer.toString(threads));
+                compensations.set(0);
+
+                long start = System.nanoTime();
+
+                service.scan();
+
+                long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+                // periodic recovery may also be running so there can be more calls than LRAs
+                assertTrue("every participant should have been asked to compensate again",
+                        compensations.get() >= LRA_COUNT);
+                System.out.printf("  %2d recovery threads: %d ms%n", threads, elapsed);
+            }
+        } finally {
+            compensated = true; // let the LRAs finish so that they are removed from the store
+            service.scan();
+        }
+    }
+
+    @Test
+    public void activeLRAPassDuration() {
+        LRAService service = LRARecoveryModule.getService();
+
+        System.out.println("recovery pass over LRAs that are active in memory:");
+
+        for (int count : ACTIVE_LRA_COUNTS) {
+            URI[] lraIds = new URI[count];
+
+            for (int i = 0; i < count; i++) {
+                lraIds[i] = lraClient.startLRA(testName.getMethodName());
+                lraClient.clearCurrent(false);
+            }
+
+            try {
+                service.scan(); // warm up
+                long start = System.nanoTime();
+
+                service.scan();
+
+                System.out.printf("  %6d active LRAs: %d ms%n",
+                        count, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } finally {
+                for (URI lraId : lraIds) {
+                    lraClient.closeLRA(lraId);
+                }
+            }
+        }
+    }
+}
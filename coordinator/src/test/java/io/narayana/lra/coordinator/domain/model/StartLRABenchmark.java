@@ -0,0 +1,103 @@
+/*
+   Copyright The Narayana Authors
+   SPDX-License-Identifier: Apache-2.0
+ */
+package io.narayana.lra.coordinator.domain.model;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+import io.narayana.lra.coordinator.domain.service.LRAService;
+import io.narayana.lra.coordinator.internal.LRARecoveryModule;
+
+/**
+ * Measures how the rate at which LRAs can be started (including writing their log records to the
+ * object store) grows with the number of threads starting them. Benchmarks are not part of the normal
+ * build, run them using {@code mvn test -Pbenchmark}.
+ */
+public class StartLRABenchmark extends LRATestBase {
+    private static final int STARTS = Integer.getInteger("benchmark.lra.count", 2000);
+    private static final int MAX_THREADS = Integer.getInteger("benchmark.threads",
+            2 * Runtime.getRuntime().availableProcessors());
+    private static final String BASE_URI = "http://localhost:8081/lra-coordinator";
+
+    @Rule
+    public TestName testName = new TestName();
+    private LRAService service;
+
+    @Before
+    public void before() {
+        clearObjectStore(testName);
+        service = LRARecoveryModule.getService();
+    }
+
+    @After
+    public void after() {
+        clearObjectStore(testName);
+    }
+
+    @Test
+    public void startThroughput() throws Exception {
+        startLRAs(1); // warm up
+
+        System.out.printf("starting %d LRAs:%n", STARTS);
+
+        for (int threads = 1; threads <= MAX_THREADS; threads *= 2) {
+            System.out.printf("  %3d threads: %.1f starts/s%n", threads, startLRAs(threads));
+        }
+    }
+
+    // start STARTS LRAs using the given number of threads and return the rate at which they were started
+    private double startLRAs(int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<List<LongRunningAction>>> results = new ArrayList<>(threads);
+        long start = System.nanoTime();
+
+        try {
+            for (int t = 0; t < threads; t++) {
+                int count = STARTS / threads + (t < STARTS % threads ? 1 : 0);
+
+                results.add(executor.submit(() -> {
+                    List<LongRunningAction> lras = new ArrayList<>(count);
+
+                    for (int i = 0; i < count; i++) {
+                        lras.add(service.startLRA(BASE_URI, null, testName.getMethodName(), 0L));
+                    }
+
+                    return lras;
+                }));
+            }
+
+            List<LongRunningAction> started = new ArrayList<>(STARTS);
+
+            for (Future<List<LongRunningAction>> result : results) {
+                started.addAll(result.get());
+            }
+
+            long elapsed = Math.max(1L, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+            assertEquals(STARTS, started.size());
+
+            for (LongRunningAction lra : started) {
+                service.remove(lra.getId());
+                service.removeLog(lra.getId().toASCIIString());
+            }
+
+            return STARTS * 1000.0 / elapsed;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+   Copyright The Narayana Authors
+   SPDX-License-Identifier: Apache-2.0
+ */
+package io.narayana.lra.coordinator.domain.model;
+
+import static io.narayana.lra.LRAConstants.COORDINATOR_PATH_NAME;
+import static org.junit.Assert.assertEquals;
+
+import java.net.URI;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.lra.annotation.LRAStatus;
+import org.jboss.resteasy.plugins.server.undertow.UndertowJaxrsServer;
+import org.jboss.resteasy.test.TestPortProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+import io.narayana.lra.client.internal.LRAStatusCache;
+import io.narayana.lra.client.internal.NarayanaLRAClient;
+import io.narayana.lra.coordinator.api.Coordinator;
+import jakarta.ws.rs.ApplicationPath;
+import jakarta.ws.rs.core.Application;
+
+/**
+ * Measures how long it takes a client to check the status of an LRA a number of times, as the filter does for
+ * every call to a participant within the LRA, with and without the client status cache. Benchmarks are not part
+ * of the normal build, run them using {@code mvn test -Pbenchmark}.
+ */
+public class StatusCacheBenchmark extends LRATestBase {
+    private static final int CHECK_COUNT = Integer.getInteger("benchmark.status.count", 10000);
+
+    @Rule
+    public TestName testName = new TestName();
+    private NarayanaLRAClient lraClient;
+
+    @ApplicationPath("/")
+    public static class LRACoordinator extends Application {
+        @Override
+        public Set<Class<?>> getClasses() {
+            HashSet<Class<?>> classes = new HashSet<>();
+            classes.add(Coordinator.class);
+            return classes;
+        }
+    }
+
+    @BeforeClass
+    public static void start() {
+        System.setProperty("lra.coordinator.url", TestPortProvider.generateURL('/' + COORDINATOR_PATH_NAME));
+    }
+
+    @Before
+    public void before() {
+        clearObjectStore(testName);
+        server = new UndertowJaxrsServer().start();
+        server.deploy(LRACoordinator.class);
+        lraClient = new NarayanaLRAClient();
+    }
+
+    @After
+    public void after() {
+        System.clearProperty(LRAStatusCache.TIME_TO_LIVE_PROPERTY);
+        LRAStatusCache.clear();
+        lraClient.close();
+        clearObjectStore(testName);
+        server.stop();
+    }
+
+    @Test
+    public void statusCheckDuration() {
+        URI lraId = lraClient.startLRA(testName.getMethodName());
+
+        checkStatus(lraId); // warm up
+
+        long uncached = checkStatus(lraId);
+
+        System.setProperty(LRAStatusCache.TIME_TO_LIVE_PROPERTY, "1000");
+
+        long cached = checkStatus(lraId);
+
+        System.out.printf("check the status of an LRA %d times:%n", CHECK_COUNT);
+        System.out.printf("  without the status cache: %d ms%n", uncached);
+        System.out.printf("  with a 1 second cache:    %d ms (%s)%n", cached, LRAStatusCache.getUsage());
+
+        lraClient.closeLRA(lraId);
+    }
+
+    private long checkStatus(URI lraId) {
+        long start = System.nanoTime();
+
+        for (int i = 0; i < CHECK_COUNT; i++) {
+            assertEquals("the LRA should be active", LRAStatus.Active, lraClient.getStatus(lraId));
+        }
+
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+   Copyright The Narayana Authors
+   SPDX-License-Identifier: Apache-2.0
+ */
+package io.narayana.lra.coordinator.domain.model;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import io.narayana.lra.coordinator.internal.TimingWheel;
+
+/**
+ * Measures the cost of scheduling and then renewing (cancelling and rescheduling) the time limits of a large
+ * number of LRAs using the timing wheel, compared with the scheduled executor that it replaced. The time
+ * limits are long enough that none of them expire. Benchmarks are not part of the normal build, run them
+ * using {@code mvn test -Pbenchmark}.
+ */
+public class TimeLimitBenchmark {
+    private static final int[] TIMEOUT_COUNTS = {10_000, 100_000, 500_000};
+    private static final long TIME_LIMIT_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    @Test
+    public void scheduleAndRenewLatency() {
+        System.out.println("schedule and renew the time limits of LRAs:");
+
+        ScheduledExecutorService executor = new ScheduledThreadPoolExecutor(10);
+
+        try {
+            executorLatency(executor, TIMEOUT_COUNTS[1]); // warm up
+            wheelLatency(TIMEOUT_COUNTS[1]);
+
+            for (int count : TIMEOUT_COUNTS) {
+                System.out.printf("  %6d LRAs: scheduled executor %.1f ns/LRA, timing wheel %.1f ns/LRA%n",
+                        count, executorLatency(executor, count), wheelLatency(count));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private double executorLatency(ScheduledExecutorService executor, int count) {
+        ScheduledFuture<?>[] timeouts = new ScheduledFuture<?>[count];
+        long start = System.nanoTime();
+
+        for (int i = 0; i < count; i++) {
+            timeouts[i] = executor.schedule(() -> { }, TIME_LIMIT_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        for (int i = 0; i < count; i++) {
+            timeouts[i].cancel(false);
+            timeouts[i] = executor.schedule(() -> { }, TIME_LIMIT_MILLIS / 2, TimeUnit.MILLISECONDS);
+        }
+
+        long elapsed = System.nanoTime() - start;
+
+        for (ScheduledFuture<?> timeout : timeouts) {
+            timeout.cancel(false);
+        }
+
+        ((ScheduledThreadPoolExecutor) executor).purge();
+
+        return (double) elapsed / count;
+    }
+
+    private double wheelLatency(int count) {
+        TimingWheel.Timeout[] timeouts = new TimingWheel.Timeout[count];
+        long start = System.nanoTime();
+
+        for (int i = 0; i < count; i++) {
+            timeouts[i] = TimingWheel.schedule(() -> { }, TIME_LIMIT_MILLIS);
+        }
+
+        for (int i = 0; i < count; i++) {
+            timeouts[i].cancel();
+            timeouts[i] = TimingWheel.schedule(() -> { }, TIME_LIMIT_MILLIS / 2);
+        }
+
+        long elapsed = System.nanoTime() - start;
+        int cancelled = 0;
+
+        for (TimingWheel.Timeout timeout : timeouts) {
+            if (timeout.cancel()) {
+                cancelled++;
+            }
+        }
+
+        assertEquals("none of the time limits should have expired", count, cancelled);
+
+        return (double) elapsed / count;
+    }
+}
@@ -5,9 +5,10 @@
 
 package io.narayana.lra.filter;
 
-import io.narayana.lra.AnnotationResolver;
 import io.narayana.lra.Current;
+import io.narayana.lra.LRAMethodAnnotations;
 import io.narayana.lra.client.LRAParticipantData;
+import io.narayana.lra.client.internal.LRAStatusCache;
 import io.narayana.lra.client.internal.NarayanaLRAClient;
 import io.narayana.lra.client.internal.proxy.nonjaxrs.LRAParticipant;
 import io.narayana.lra.client.internal.proxy.nonjaxrs.LRAParticipantRegistry;
@@ -18,14 +19,8 @@ import jakarta.enterprise.context.ContextNotActiveException;
 import jakarta.ws.rs.core.Link;
 import jakarta.ws.rs.core.UriInfo;
 import org.eclipse.microprofile.config.ConfigProvider;
-import org.eclipse.microprofile.lra.annotation.AfterLRA;
-import org.eclipse.microprofile.lra.annotation.Compensate;
-import org.eclipse.microprofile.lra.annotation.Complete;
-import org.eclipse.microprofile.lra.annotation.Forget;
 import org.eclipse.microprofile.lra.annotation.LRAStatus;
-import org.eclipse.microprofile.lra.annotation.Status;
 import org.eclipse.microprofile.lra.annotation.ws.rs.LRA;
-import org.eclipse.microprofile.lra.annotation.ws.rs.Leave;
 
 import jakarta.inject.Inject;
 import jakarta.ws.rs.NotFoundException;
@@ -50,10 +45,13 @@ import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import static io.narayana.lra.LRAConstants.AFTER;
@@ -65,6 +63,7 @@ import static io.narayana.lra.LRAConstants.STATUS;
 import static io.narayana.lra.LRAConstants.TIMELIMIT_PARAM_NAME;
 import static jakarta.ws.rs.core.Response.Status.NOT_FOUND;
 import static org.eclipse.microprofile.lra.annotation.ws.rs.LRA.LRA_HTTP_CONTEXT_HEADER;
+import static org.eclipse.microprofile.lra.annotation.ws.rs.LRA.LRA_HTTP_ENDED_CONTEXT_HEADER;
 import static org.eclipse.microprofile.lra.annotation.ws.rs.LRA.LRA_HTTP_PARENT_CONTEXT_HEADER;
 import static org.eclipse.microprofile.lra.annotation.ws.rs.LRA.LRA_HTTP_RECOVERY_HEADER;
 import static org.eclipse.microprofile.lra.annotation.ws.rs.LRA.Type.MANDATORY;
@@ -83,6 +82,13 @@ public class ServerLRAFilter implements ContainerRequestFilter, ContainerRespons
     private static final String PARTICIPANT_LINK_PROP = "compensatorURI";
     private static final Pattern START_END_QUOTES_PATTERN = Pattern.compile("^\"|\"$");
     private static final long DEFAULT_TIMEOUT_MILLIS = 0L;
+    private static final int MAX_CACHED_URI_PREFIXES = 16;
+    private static final ClassValue<Map<String, TerminationURIs>> TERMINATION_URIS = new ClassValue<>() {
+        @Override
+        protected Map<String, TerminationURIs> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
 
     @Context
     protected ResourceInfo resourceInfo;
@@ -118,7 +124,8 @@ public class ServerLRAFilter implements ContainerRequestFilter, ContainerRespons
         Method method = resourceInfo.getResourceMethod();
         MultivaluedMap<String, String> headers = containerRequestContext.getHeaders();
         LRA.Type type = null;
-        LRA transactional = AnnotationResolver.resolveAnnotation(LRA.class, method);
+        LRAMethodAnnotations annotations = LRAMethodAnnotations.of(method);
+        LRA transactional = annotations.getLRA();
         URI lraId;
         URI newLRA = null;
         Long timeout = null;
@@ -130,10 +137,6 @@ public class ServerLRAFilter implements ContainerRequestFilter, ContainerRespons
         boolean requiresActiveLRA = false;
         ArrayList<Progress> progress = null;
 
-        if (transactional == null) {
-            transactional = method.getDeclaringClass().getDeclaredAnnotation(LRA.class);
-        }
-
         if (transactional != null) {
             type = transactional.value();
             isLongRunning = !transactional.end();
@@ -153,12 +156,12 @@ public class ServerLRAFilter implements ContainerRequestFilter, ContainerRespons
             }
         }
 
-        boolean endAnnotation = AnnotationResolver.isAnnotationPresent(Complete.class, method)
-                || AnnotationResolver.isAnnotationPresent(Compensate.class, method)
-                || AnnotationResolver.isAnnotationPresent(Leave.class, method)
-                || AnnotationResolver.isAnnotationPresent(Status.class, method)
-                || AnnotationResolver.isAnnotationPresent(Forget.class, method)
-                || AnnotationResolver.isAnnotationPresent(AfterLRA.class, method);
+        boolean endAnnotation = annotations.isEndMethod();
+
+        if (endAnnotation && !annotations.isLeave()) {
+            // the coordinator only calls these methods once the LRA has stopped being active
+            forgetLRAStatus(headers, annotations.isAfterLRA() ? LRA_HTTP_ENDED_CONTEXT_HEADER : LRA_HTTP_CONTEXT_HEADER);
+        }
 
         if (headers.containsKey(LRA_HTTP_CONTEXT_HEADER)) {
             try {
@@ -172,11 +175,9 @@ public class ServerLRAFilter implements ContainerRequestFilter, ContainerRespons
                 return; // user error, bail out
             }
 
-            if (AnnotationResolver.isAnnotationPresent(Leave.class, method)) {
+            if (annotations.isLeave()) {
                 // leave the LRA
-                Map<String, String> terminateURIs = NarayanaLRAClient.getTerminationUris(
-                        resourceInfo.getResourceClass(), createUriPrefix(containerRequestContext), timeout);
-                String compensatorId = terminateURIs.get("Link");
+                String compensatorId = getTerminationURIs(containerRequestContext).uris.get("Link");
 
                 if (compensatorId == null) {
                     abortWith(containerRequestContext, incomingLRA.toASCIIString(),
@@ -380,27 +381,26 @@ public class ServerLRAFilter implements ContainerRequestFilter, ContainerRespons
         }
 
         if (!endAnnotation) { // don't enlist for methods marked with Compensate, Complete or Leave
-            Map<String, String> terminateURIs = NarayanaLRAClient.getTerminationUris(resourceInfo.getResourceClass(),
-                createUriPrefix(containerRequestContext), timeout);
-            String timeLimitStr = terminateURIs.get(TIMELIMIT_PARAM_NAME);
-            long timeLimit = timeLimitStr == null ? DEFAULT_TIMEOUT_MILLIS : Long.parseLong(timeLimitStr);
+            TerminationURIs participantURIs = getTerminationURIs(containerRequestContext);
+            Map<String, String> terminateURIs = participantURIs.uris;
+            // the time limit only applies to participants with Compensate or Complete methods
+            long timeLimit = terminateURIs.containsKey(TIMELIMIT_PARAM_NAME) && timeout != null ? timeout : DEFAULT_TIMEOUT_MILLIS;
 
             LRAParticipant participant = lraParticipantRegistry != null ?
                 lraParticipantRegistry.getParticipant(resourceInfo.getResourceClass().getName()) : null;
 
             if (terminateURIs.containsKey("Link") || participant != null) {
                 try {
+                    String compensatorLink;
+
                     if (participant != null) {
-                        participant.augmentTerminationURIs(terminateURIs, containerRequestContext.getUriInfo().getBaseUri());
-                    }
+                        Map<String, String> augmentedURIs = new HashMap<>(terminateURIs);
 
-                    String compensatorLink = buildCompensatorURI(
-                            toURI(terminateURIs.get(COMPENSATE)),
-                            toURI(terminateURIs.get(COMPLETE)),
-                            toURI(terminateURIs.get(FORGET)),
-                            toURI(terminateURIs.get(LEAVE)),
-                            toURI(terminateURIs.get(AFTER)),
-                            toURI(terminateURIs.get(STATUS)));
+                        participant.augmentTerminationURIs(augmentedURIs, containerRequestContext.getUriInfo().getBaseUri());
+                        compensatorLink = buildCompensatorURI(augmentedURIs);
+                    } else {
+                        compensatorLink = participantURIs.getCompensatorLink();
+                    }
                     StringBuilder previousParticipantData = new StringBuilder();
 
                     // store the registration link in case the participant wants to associate data with the enlistment in the LRA
@@ -456,6 +456,28 @@ public class ServerLRAFilter implements ContainerRequestFilter, ContainerRespons
         Current.addActiveLRACache(lraId);
     }
 
+    /*
+     * The termination URIs of the resource class only depend on the class and on the URI prefix of the request,
+     * so they are computed once for each prefix rather than on every request. The number of prefixes that are
+     * remembered for a class is bounded since the prefix is derived from the request.
+     */
+    private TerminationURIs getTerminationURIs(ContainerRequestContext containerRequestContext) {
+        Class<?> resourceClass = resourceInfo.getResourceClass();
+        String uriPrefix = createUriPrefix(containerRequestContext);
+        Map<String, TerminationURIs> byPrefix = TERMINATION_URIS.get(resourceClass);
+        TerminationURIs uris = byPrefix.get(uriPrefix);
+
+        if (uris == null) {
+            uris = new TerminationURIs(NarayanaLRAClient.getTerminationUris(resourceClass, uriPrefix, null));
+
+            if (byPrefix.size() < MAX_CACHED_URI_PREFIXES) {
+                byPrefix.putIfAbsent(uriPrefix, uris);
+            }
+        }
+
+        return uris;
+    }
+
     private String createUriPrefix(ContainerRequestContext containerRequestContext) {
         return ConfigProvider.getConfig().getOptionalValue("narayana.lra.base-uri", String.class)
             .orElseGet(() -> {
@@ -729,7 +751,19 @@ public class ServerLRAFilter implements ContainerRequestFilter, ContainerRespons
                 lraId == null ? "context" : lraId);
     }
 
-    private URI toURI(String uri) throws URISyntaxException {
+    private static void forgetLRAStatus(MultivaluedMap<String, String> headers, String header) {
+        String lraId = Current.getLast(headers.get(header));
+
+        if (lraId != null) {
+            try {
+                LRAStatusCache.invalidate(new URI(lraId));
+            } catch (URISyntaxException ignore) {
+                // an invalid context header is reported when the header is parsed
+            }
+        }
+    }
+
+    private static URI toURI(String uri) throws URISyntaxException {
         return uri == null ? null : new URI(uri);
     }
 
@@ -781,15 +815,15 @@ public class ServerLRAFilter implements ContainerRequestFilter, ContainerRespons
         }
     }
 
-    private String buildCompensatorURI(URI compensate, URI complete, URI forget, URI leave, URI after, URI status) {
+    private static String buildCompensatorURI(Map<String, String> terminateURIs) throws URISyntaxException {
         StringBuilder linkHeaderValue = new StringBuilder();
 
-        makeLink(linkHeaderValue, COMPENSATE, compensate);
-        makeLink(linkHeaderValue, COMPLETE, complete);
-        makeLink(linkHeaderValue, FORGET, forget);
-        makeLink(linkHeaderValue, LEAVE, leave);
-        makeLink(linkHeaderValue, AFTER, after);
-        makeLink(linkHeaderValue, STATUS, status);
+        makeLink(linkHeaderValue, COMPENSATE, toURI(terminateURIs.get(COMPENSATE)));
+        makeLink(linkHeaderValue, COMPLETE, toURI(terminateURIs.get(COMPLETE)));
+        makeLink(linkHeaderValue, FORGET, toURI(terminateURIs.get(FORGET)));
+        makeLink(linkHeaderValue, LEAVE, toURI(terminateURIs.get(LEAVE)));
+        makeLink(linkHeaderValue, AFTER, toURI(terminateURIs.get(AFTER)));
+        makeLink(linkHeaderValue, STATUS, toURI(terminateURIs.get(STATUS)));
 
         return linkHeaderValue.toString();
     }
@@ -808,4 +842,27 @@ public class ServerLRAFilter implements ContainerRequestFilter, ContainerRespons
 
         b.append(link);
     }
-}
\ No newline at end of file
+
+    // the termination URIs of a resource class and the Link header used to enlist it, for one URI prefix
+    private static final class TerminationURIs {
+        private final Map<String, String> uris;
+        private final String compensatorLink; // null if one of the URIs is invalid
+
+        private TerminationURIs(Map<String, String> uris) {
+            String link;
+
+            try {
+                link = buildCompensatorURI(uris);
+            } catch (URISyntaxException e) {
+                link = null; // report the invalid URI whenever the class is enlisted
+            }
+
+            this.uris = Collections.unmodifiableMap(uris);
+            this.compensatorLink = link;
+        }
+
+        private String getCompensatorLink() throws URISyntaxException {
+            return compensatorLink != null ? compensatorLink : buildCompensatorURI(uris);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+   Copyright The Narayana Authors
+   SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.narayana.lra;
+
+import java.net.URI;
+
+/**
+ * DTO object which describes one of the operations of a batch request
+ * sent to the {@value LRAConstants#BATCH_PATH_NAME} endpoint of the
+ * {@code io.narayana.lra.coordinator.api.Coordinator}.
+ */
+public class LRABatchOperation {
+    public enum Type {
+        START, CLOSE, CANCEL, STATUS
+    }
+
+    private Type type;
+    private URI lraId;
+    private String clientId;
+    private long timeLimit;
+    private URI parentLRA;
+
+    public LRABatchOperation() {}
+
+    public LRABatchOperation(Type type, URI lraId, String clientId, long timeLimit, URI parentLRA) {
+        this.type = type;
+        this.lraId = lraId;
+        this.clientId = clientId;
+        this.timeLimit = timeLimit;
+        this.parentLRA = parentLRA;
+    }
+
+    /**
+     * @param parentLRA the enclosing LRA if the new LRA is nested, or null
+     * @param clientId the client id of the new LRA
+     * @param timeLimit the maximum time in milliseconds that the LRA will exist for, zero for no limit
+     * @return an operation which starts an LRA
+     */
+    public static LRABatchOperation start(URI parentLRA, String clientId, long timeLimit) {
+        return new LRABatchOperation(Type.START, null, clientId, timeLimit, parentLRA);
+    }
+
+    public static LRABatchOperation close(URI lraId) {
+        return new LRABatchOperation(Type.CLOSE, lraId, null, 0L, null);
+    }
+
+    public static LRABatchOperation cancel(URI lraId) {
+        return new LRABatchOperation(Type.CANCEL, lraId, null, 0L, null);
+    }
+
+    public static LRABatchOperation status(URI lraId) {
+        return new LRABatchOperation(Type.STATUS, lraId, null, 0L, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public URI getLraId() {
+        return lraId;
+    }
+
+    public void setLraId(URI lraId) {
+        this.lraId = lraId;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(String clientId) {
+        this.clientId = clientId;
+    }
+
+    public long getTimeLimit() {
+        return timeLimit;
+    }
+
+    public void setTimeLimit(long timeLimit) {
+        this.timeLimit = timeLimit;
+    }
+
+    public URI getParentLRA() {
+        return parentLRA;
+    }
+
+    public void setParentLRA(URI parentLRA) {
+        this.parentLRA = parentLRA;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s {type=%s, lraId='%s', clientId='%s', timeLimit=%d, parentLRA='%s'}",
+                this.getClass().getSimpleName(), type, lraId, clientId, timeLimit, parentLRA);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+   Copyright The Narayana Authors
+   SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.narayana.lra;
+
+import org.eclipse.microprofile.lra.annotation.LRAStatus;
+
+import java.beans.Transient;
+import java.net.URI;
+
+/**
+ * DTO object which holds the outcome of one of the operations of a batch request
+ * (see {@link LRABatchOperation}). The results of a batch are returned in the same
+ * order as its operations.
+ */
+public class LRABatchResult {
+    private LRABatchOperation.Type type;
+    private URI lraId;
+    private LRAStatus status;
+    private int httpStatus;
+    private String message;
+
+    public LRABatchResult() {}
+
+    public LRABatchResult(LRABatchOperation.Type type, URI lraId, LRAStatus status, int httpStatus, String message) {
+        this.type = type;
+        this.lraId = lraId;
+        this.status = status;
+        this.httpStatus = httpStatus;
+        this.message = message;
+    }
+
+    public LRABatchOperation.Type getType() {
+        return type;
+    }
+
+    public void setType(LRABatchOperation.Type type) {
+        this.type = type;
+    }
+
+    /**
+     * @return the LRA that the operation was applied to, or that it started
+     */
+    public URI getLraId() {
+        return lraId;
+    }
+
+    public void setLraId(URI lraId) {
+        this.lraId = lraId;
+    }
+
+    /**
+     * @return the status of the LRA after the operation, or null if the operation failed
+     */
+    public LRAStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(LRAStatus status) {
+        this.status = status;
+    }
+
+    /**
+     * @return the HTTP status code that the equivalent single LRA request would have returned
+     */
+    public int getHttpStatus() {
+        return httpStatus;
+    }
+
+    public void setHttpStatus(int httpStatus) {
+        this.httpStatus = httpStatus;
+    }
+
+    /**
+     * @return the reason the operation failed, or null
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Transient
+    public boolean isSuccessful() {
+        return httpStatus >= 200 && httpStatus < 300;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s {type=%s, lraId='%s', status='%s', httpStatus=%d, message='%s'}",
+                this.getClass().getSimpleName(), type, lraId, status, httpStatus, message);
+    }
+}
@@ -14,6 +14,7 @@ import java.util.regex.Pattern;
 public final class LRAConstants {
     public static final String COORDINATOR_PATH_NAME = "lra-coordinator";
     public static final String RECOVERY_COORDINATOR_PATH_NAME = "recovery";
+    public static final String BATCH_PATH_NAME = "batch";
 
     public static final String COMPLETE = "complete";
     public static final String COMPENSATE = "compensate";
@@ -26,6 +27,13 @@ public final class LRAConstants {
     public static final String CLIENT_ID_PARAM_NAME = "ClientID";
     public static final String TIMELIMIT_PARAM_NAME = "TimeLimit";
     public static final String PARENT_LRA_PARAM_NAME = "ParentLRA";
+    // parameters for filtering and paging the list of LRAs
+    public static final String TOP_LEVEL_PARAM_NAME = "TopLevel";
+    public static final String RECOVERING_PARAM_NAME = "Recovering";
+    public static final String STARTED_FROM_PARAM_NAME = "StartedFrom"; // epoch milliseconds, inclusive
+    public static final String STARTED_BEFORE_PARAM_NAME = "StartedBefore"; // epoch milliseconds, exclusive
+    public static final String LIMIT_PARAM_NAME = "Limit";
+    public static final String CURSOR_PARAM_NAME = "Cursor";
     public static final String QUERY_PAIR_SEPARATOR = "&"; // separator to isolate each "key=value" pair of a URI query component
     public static final String QUERY_FIELD_SEPARATOR = "="; // separator to pick out the key and value of each pair
     public static final String RECOVERY_PARAM = "recoveryCount";
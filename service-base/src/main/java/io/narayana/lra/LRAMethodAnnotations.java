@@ -0,0 +1,102 @@
+/*
+   Copyright The Narayana Authors
+   SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.narayana.lra;
+
+import org.eclipse.microprofile.lra.annotation.AfterLRA;
+import org.eclipse.microprofile.lra.annotation.Compensate;
+import org.eclipse.microprofile.lra.annotation.Complete;
+import org.eclipse.microprofile.lra.annotation.Forget;
+import org.eclipse.microprofile.lra.annotation.Status;
+import org.eclipse.microprofile.lra.annotation.ws.rs.LRA;
+import org.eclipse.microprofile.lra.annotation.ws.rs.Leave;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The LRA annotations of a method, resolved using {@link AnnotationResolver}.
+ * <p>
+ * Resolving an annotation searches the superclasses and interfaces of the declaring class of the method, so the
+ * annotations are resolved once, the first time the method is looked up, and the result is reused for every
+ * later lookup. The results are kept with the declaring class and so do not prevent it from being unloaded.
+ */
+public final class LRAMethodAnnotations {
+    private static final ClassValue<Map<Method, LRAMethodAnnotations>> ANNOTATIONS = new ClassValue<>() {
+        @Override
+        protected Map<Method, LRAMethodAnnotations> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final LRA lra;
+    private final boolean complete;
+    private final boolean compensate;
+    private final boolean leave;
+    private final boolean status;
+    private final boolean forget;
+    private final boolean afterLRA;
+
+    private LRAMethodAnnotations(Method method) {
+        LRA annotation = AnnotationResolver.resolveAnnotation(LRA.class, method);
+
+        lra = annotation != null ? annotation : method.getDeclaringClass().getDeclaredAnnotation(LRA.class);
+        complete = AnnotationResolver.isAnnotationPresent(Complete.class, method);
+        compensate = AnnotationResolver.isAnnotationPresent(Compensate.class, method);
+        leave = AnnotationResolver.isAnnotationPresent(Leave.class, method);
+        status = AnnotationResolver.isAnnotationPresent(Status.class, method);
+        forget = AnnotationResolver.isAnnotationPresent(Forget.class, method);
+        afterLRA = AnnotationResolver.isAnnotationPresent(AfterLRA.class, method);
+    }
+
+    /**
+     * @param method the method to look up
+     * @return the LRA annotations of the method
+     */
+    public static LRAMethodAnnotations of(Method method) {
+        return ANNOTATIONS.get(method.getDeclaringClass()).computeIfAbsent(method, LRAMethodAnnotations::new);
+    }
+
+    /**
+     * @return the LRA annotation of the method, or of its declaring class if the method does not have one,
+     * or null if neither of them has one
+     */
+    public LRA getLRA() {
+        return lra;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public boolean isCompensate() {
+        return compensate;
+    }
+
+    public boolean isLeave() {
+        return leave;
+    }
+
+    public boolean isStatus() {
+        return status;
+    }
+
+    public boolean isForget() {
+        return forget;
+    }
+
+    public boolean isAfterLRA() {
+        return afterLRA;
+    }
+
+    /**
+     * @return true if the method is called by the coordinator to end or query the participation in an LRA
+     * (Complete, Compensate, Status, Forget or AfterLRA) or is used to leave it (Leave)
+     */
+    public boolean isEndMethod() {
+        return complete || compensate || leave || status || forget || afterLRA;
+    }
+}
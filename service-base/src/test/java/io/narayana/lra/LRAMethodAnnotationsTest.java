@@ -0,0 +1,73 @@
+/*
+   Copyright The Narayana Authors
+   SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.narayana.lra;
+
+import org.eclipse.microprofile.lra.annotation.Compensate;
+import org.eclipse.microprofile.lra.annotation.ws.rs.LRA;
+import org.eclipse.microprofile.lra.annotation.ws.rs.Leave;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.URI;
+
+public class LRAMethodAnnotationsTest {
+
+    interface Participant {
+        @Compensate
+        void compensate(URI lraId);
+    }
+
+    @LRA(LRA.Type.MANDATORY)
+    static class BaseResource {
+        @LRA(LRA.Type.REQUIRES_NEW)
+        public void work() {
+        }
+
+        @Leave
+        public void leave() {
+        }
+    }
+
+    static class Resource extends BaseResource implements Participant {
+        @Override
+        public void work() {
+        }
+
+        @Override
+        public void compensate(URI lraId) {
+        }
+
+        public void other() {
+        }
+    }
+
+    @Test
+    public void resolvesInheritedAnnotations() throws NoSuchMethodException {
+        LRAMethodAnnotations work = LRAMethodAnnotations.of(Resource.class.getMethod("work"));
+        LRAMethodAnnotations compensate = LRAMethodAnnotations.of(Resource.class.getMethod("compensate", URI.class));
+        LRAMethodAnnotations leave = LRAMethodAnnotations.of(Resource.class.getMethod("leave"));
+
+        Assert.assertEquals(LRA.Type.REQUIRES_NEW, work.getLRA().value());
+        Assert.assertFalse(work.isEndMethod());
+        Assert.assertTrue(compensate.isCompensate());
+        Assert.assertTrue(compensate.isEndMethod());
+        Assert.assertFalse(compensate.isComplete());
+        Assert.assertTrue(leave.isLeave());
+        Assert.assertEquals("the LRA annotation of the declaring class should be used",
+                LRA.Type.MANDATORY, leave.getLRA().value());
+    }
+
+    @Test
+    public void annotationsAreResolvedOnce() throws NoSuchMethodException {
+        Assert.assertSame(LRAMethodAnnotations.of(Resource.class.getMethod("work")),
+                LRAMethodAnnotations.of(Resource.class.getMethod("work")));
+
+        LRAMethodAnnotations other = LRAMethodAnnotations.of(Resource.class.getMethod("other"));
+
+        Assert.assertNull(other.getLRA());
+        Assert.assertFalse(other.isEndMethod());
+    }
+}